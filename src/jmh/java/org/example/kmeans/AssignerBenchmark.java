@@ -0,0 +1,79 @@
+package org.example.kmeans;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.PointStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 할당 커널만 따로 측정한다. 한 번의 호출은 전체 포인트에 대한 한 번의 할당 패스이다.
+ * 중심점이 전혀 움직이지 않으면 Hamerly 가 모든 포인트를 건너뛰므로,
+ * 실제 후반 반복처럼 조금씩 움직이는 두 중심점 집합을 번갈아 사용한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssignerBenchmark {
+
+    @Param({"1000000"})
+    int n;
+
+    @Param({"5", "50", "500", "5000"})
+    int k;
+
+    /**
+     * 커널 선택은 lloyd 에만 영향을 주므로 lloyd 만 커널별로 나눈다.
+     */
+    @Param({"lloyd-scalar", "lloyd-vector", "hamerly", "kdtree"})
+    String algorithm;
+
+    @Param({"2", "32"})
+    int dimensions;
+
+    private PointStore points;
+    private Assigner assigner;
+    private double[][][] centroidSets;
+    private double[] sums;
+    private int[] counts;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int separator = algorithm.indexOf('-');
+        Kernels.select(separator < 0 ? "auto" : algorithm.substring(separator + 1));
+        points = BenchmarkData.uniform(n, dimensions, 42);
+        assigner = Assigner.create(separator < 0 ? algorithm : algorithm.substring(0, separator), points, k);
+        double[][] centroids = Centroids.initial(points, k);
+        double[][] moved = new double[k][];
+        for (int j = 0; j < k; j++) {
+            moved[j] = centroids[j].clone();
+            for (int d = 0; d < dimensions; d++) {
+                moved[j][d] += (d & 1) == 0 ? 1 : -1;
+            }
+        }
+        centroidSets = new double[][][] {centroids, moved};
+        sums = new double[k * dimensions];
+        counts = new int[k];
+        // 첫 패스(경계 초기화)는 측정에서 제외한다.
+        assigner.prepare(centroids);
+        assigner.assign(0, n, sums, counts);
+    }
+
+    @Benchmark
+    public int assign() {
+        // 엔진처럼 매 패스마다 부분합을 비운다.
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+        assigner.prepare(centroidSets[++invocation & 1]);
+        return assigner.assign(0, n, sums, counts);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.kmeans;
+
+import java.util.SplittableRandom;
+
+import org.example.data.ArrayPointStore;
+import org.example.data.PointStore;
+
+/**
+ * 벤치마크 입력. dataGenerate 와 같은 범위의 균등 분포 좌표를 시드로 재현 가능하게 만든다.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static PointStore uniform(int n, long seed) {
+        return uniform(n, 2, seed);
+    }
+
+    static PointStore uniform(int n, int dimensions, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] columns = new double[dimensions][n];
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < dimensions; d++) {
+                columns[d][i] = random.nextInt(20001) - 10000;
+            }
+        }
+        return new ArrayPointStore(columns);
+    }
+}
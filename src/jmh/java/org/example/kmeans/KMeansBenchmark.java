@@ -0,0 +1,47 @@
+package org.example.kmeans;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.PointStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 싱글 스레드 엔진의 고정 반복 실행 시간. 데이터 생성은 측정에서 제외한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KMeansBenchmark {
+
+    @Param({"100000", "1000000"})
+    int n;
+
+    @Param({"5", "50"})
+    int k;
+
+    @Param({"lloyd", "hamerly", "kdtree"})
+    String algorithm;
+
+    @Param({"10"})
+    int iterations;
+
+    private PointStore points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        points = BenchmarkData.uniform(n, 42);
+    }
+
+    @Benchmark
+    public ClusteringResult singleThread() {
+        return new KMeansSingleThread(points, k, algorithm).run(iterations);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.PointFile;
+import org.example.data.PointStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 멀티 스레드/포크 조인/멀티 프로세스 엔진의 스레드·프로세스 수별 실행 시간.
+ * multiProcess 는 미리 띄운 워커 풀을 사용하므로 워커 JVM 기동 비용은 측정에서 제외된다.
+ * sharedMemory 는 매 실행마다 워커를 띄우는 비용을 포함한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelKMeansBenchmark {
+
+    @Param({"100000", "1000000"})
+    int n;
+
+    @Param({"5", "50"})
+    int k;
+
+    @Param({"2", "4", "8"})
+    int workers;
+
+    @Param({"lloyd"})
+    String algorithm;
+
+    @Param({"10"})
+    int iterations;
+
+    private PointStore points;
+    private PointStore mappedPoints;
+    private Path pointFile;
+    private WorkerPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        points = BenchmarkData.uniform(n, 42);
+        pointFile = Files.createTempFile("kmeans-benchmark", ".bin");
+        PointFile.write(points, pointFile);
+        mappedPoints = PointFile.map(pointFile);
+        pool = new WorkerPool(workers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.close();
+        Files.deleteIfExists(pointFile);
+    }
+
+    @Benchmark
+    public ClusteringResult multiThread() throws InterruptedException {
+        return new KMeansMultiThread(points, k, algorithm).run(workers, iterations);
+    }
+
+    @Benchmark
+    public ClusteringResult forkJoin() {
+        return new KMeansForkJoin(points, k, algorithm).run(workers, iterations);
+    }
+
+    @Benchmark
+    public ClusteringResult multiProcess() throws IOException, InterruptedException {
+        KMeansMultiProcess kMeans = new KMeansMultiProcess(points, k, algorithm);
+        kMeans.setWorkerPool(pool);
+        return kMeans.run(workers, iterations);
+    }
+
+    @Benchmark
+    public ClusteringResult sharedMemory() throws IOException, InterruptedException {
+        return new KMeansSharedMemory(mappedPoints, k, algorithm).run(workers, iterations);
+    }
+}
@@ -3,34 +3,99 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 
+import org.example.data.ArrayPointStore;
+import org.example.data.CsvPointReader;
+import org.example.data.FloatPointStore;
+import org.example.data.ParallelCsvLoader;
+import org.example.data.PointFile;
+import org.example.data.PointGenerator;
+import org.example.data.PointStore;
+import org.example.kmeans.Checkpoint;
+import org.example.kmeans.CheckpointWriter;
+import org.example.kmeans.ClusteringResult;
+import org.example.kmeans.Convergence;
+import org.example.kmeans.IterationListener;
+import org.example.kmeans.KMeansForkJoin;
+import org.example.kmeans.KMeansMiniBatch;
+import org.example.kmeans.Kernels;
+import org.example.kmeans.MetricsRecorder;
 import org.example.kmeans.KMeansMultiProcess;
 import org.example.kmeans.KMeansMultiThread;
+import org.example.kmeans.KMeansSharedMemory;
+import org.example.kmeans.KMeansStreaming;
+import org.example.kmeans.ResultWriter;
+import org.example.kmeans.Seeding;
+import org.example.kmeans.WorkerPool;
 import org.example.kmeans.KMeansSingleThread;
 
 public class KMeansClustering {
 
     public static void main(String[] args) throws IOException, InterruptedException, ClassNotFoundException {
         CommandLineOptions options = parseCommandLineArgs(args);
+        Kernels.select(options.kernel);
+        if (!options.metricsPath.isEmpty()) {
+            options.metrics = new MetricsRecorder();
+        }
+        if (!options.resumePath.isEmpty()) {
+            options.resume = Checkpoint.read(Path.of(options.resumePath));
+        } else if (!options.warmStartPath.isEmpty()) {
+            options.warmStart = Checkpoint.read(Path.of(options.warmStartPath));
+        }
 
         switch (options.mode) {
             case "dataGenerate":
-                generateData(options.dataPoints, options.dataPath);
+                generateData(options);
+                break;
+            case "convert":
+                PointFile.convertCsv(Path.of(options.dataPath), Path.of(options.outputPath));
                 break;
             case "run":
-                runSingleThread(options.dataPath, options.clusters, options.iterations);
-                runMultiThread(options.dataPath, options.clusters, options.threads, options.iterations);
-                runMultiProcess(options.dataPath, options.clusters, options.processes, options.iterations);
+                runSingleThread(options);
+                runMultiThread(options);
+                runForkJoin(options);
+                runMultiProcess(options);
+                runSharedMemory(options);
+                break;
+            case "single":
+                runSingleThread(options);
+                break;
+            case "multiThread":
+                runMultiThread(options);
+                break;
+            case "forkJoin":
+                runForkJoin(options);
+                break;
+            case "multiProcess":
+                runMultiProcess(options);
+                break;
+            case "sharedMemory":
+                runSharedMemory(options);
+                break;
+            case "miniBatch":
+                runMiniBatch(options);
+                break;
+            case "streaming":
+                runStreaming(options);
+                break;
+            case "multiProcessPool":
+                runMultiProcessPool(options);
                 break;
             default:
                 System.out.println("잘못된 모드입니다.");
                 break;
         }
+        if (options.metrics != null) {
+            writeMetrics(options.metrics, Path.of(options.metricsPath));
+        }
     }
 
     private static CommandLineOptions parseCommandLineArgs(String[] args) {
@@ -58,6 +123,82 @@ public class KMeansClustering {
                 case "-iterations":
                     options.iterations = Integer.parseInt(args[++i]);
                     break;
+                case "-precision":
+                    options.precision = args[++i];
+                    break;
+                case "-algorithm":
+                    options.algorithm = args[++i];
+                    break;
+                case "-tolerance":
+                    options.tolerance = Double.parseDouble(args[++i]);
+                    break;
+                case "-changeThreshold":
+                    options.changeThreshold = Long.parseLong(args[++i]);
+                    break;
+                case "-jobs":
+                    options.jobsPath = args[++i];
+                    break;
+                case "-batchSize":
+                    options.batchSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    options.seed = Long.parseLong(args[++i]);
+                    options.seedGiven = true;
+                    break;
+                case "-chunkSize":
+                    options.chunkSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-snapshotInterval":
+                    options.snapshotInterval = Long.parseLong(args[++i]);
+                    break;
+                case "-init":
+                    options.init = args[++i];
+                    break;
+                case "-dimensions":
+                    options.dimensions = Integer.parseInt(args[++i]);
+                    break;
+                case "-distribution":
+                    options.distribution = args[++i];
+                    break;
+                case "-centers":
+                    options.centers = Integer.parseInt(args[++i]);
+                    break;
+                case "-spread":
+                    options.spread = Double.parseDouble(args[++i]);
+                    break;
+                case "-workerTimeout":
+                    options.workerTimeoutSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "-checkpoint":
+                    options.checkpointPath = args[++i];
+                    break;
+                case "-checkpointInterval":
+                    options.checkpointInterval = Integer.parseInt(args[++i]);
+                    break;
+                case "-checkpointLabels":
+                    options.checkpointLabels = Boolean.parseBoolean(args[++i]);
+                    break;
+                case "-resume":
+                    options.resumePath = args[++i];
+                    break;
+                case "-warmStart":
+                    options.warmStartPath = args[++i];
+                    break;
+                case "-labelsPath":
+                    options.labelsPath = args[++i];
+                    break;
+                case "-clustersPath":
+                    options.clustersPath = args[++i];
+                    break;
+                case "-metrics":
+                    options.metricsPath = args[++i];
+                    break;
+                case "-kernel":
+                    options.kernel = args[++i];
+                    break;
+                case "-outputPath":
+                    options.outputPath = args[++i];
+                    break;
                 default:
                     break;
             }
@@ -65,92 +206,341 @@ public class KMeansClustering {
         return options;
     }
 
-    private static void generateData(int numberOfPoints, String fileName) {
-        Random random = new Random();
+    /**
+     * dataPath 가 .bin 으로 끝나면 바이너리 포인트 파일을, 아니면 CSV 를 만든다.
+     * -seed 가 없으면 무작위 시드를 골라 출력하므로 같은 파일을 다시 만들 수 있다.
+     */
+    private static void generateData(CommandLineOptions options) {
+        long seed = options.seed;
+        if (!options.seedGiven) {
+            seed = new SplittableRandom().nextLong();
+            System.out.println("Seed: " + seed);
+        }
+        PointGenerator generator = new PointGenerator(options.dataPoints, options.dimensions, options.distribution,
+            options.centers, options.spread, seed);
         try {
-            File file = new File(fileName);
-            file.getParentFile().mkdirs();
-            try (FileWriter writer = new FileWriter(file)) {
-                for (int i = 0; i < numberOfPoints; i++) {
-                    int x = random.nextInt(20001) - 10000;
-                    int y = random.nextInt(20001) - 10000;
-                    writer.write(x + "," + y + "\n");
-                }
-            }
+            generator.write(Path.of(options.dataPath), options.threads);
         } catch (IOException e) {
             System.err.println(e.getMessage());
         }
     }
 
-    private static void runSingleThread(String dataPath, int clusters, int iterations) throws FileNotFoundException {
-        double[][] dataPoints = readDataPoints(dataPath);
-        KMeansSingleThread kMeans = new KMeansSingleThread(dataPoints, clusters);
+    private static void runSingleThread(CommandLineOptions options) throws IOException, InterruptedException {
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansSingleThread kMeans = new KMeansSingleThread(dataPoints, options.clusters, options.algorithm);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
 
+        kMeans.setStartIteration(startIteration(options));
         long startTime = System.currentTimeMillis();
-        String result = kMeans.run(iterations);
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        ClusteringResult result = kMeans.run(options.iterations);
         long endTime = System.currentTimeMillis();
+        finish(checkpoint);
 
         long executionTime = endTime - startTime;
         System.out.println(result);
         System.out.println("싱글 스레드 실행 시간: " + executionTime + "ms");
+        export(options, result);
     }
 
-    private static void runMultiThread(String dataPath, int clusters, int threads, int iterations) throws FileNotFoundException, InterruptedException {
-        double[][] dataPoints = readDataPoints(dataPath);
-        KMeansMultiThread kMeans = new KMeansMultiThread(dataPoints, clusters);
+    private static void runMultiThread(CommandLineOptions options) throws IOException, InterruptedException {
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansMultiThread kMeans = new KMeansMultiThread(dataPoints, options.clusters, options.algorithm);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
 
+        kMeans.setStartIteration(startIteration(options));
         long startTime = System.currentTimeMillis();
-        String result = kMeans.run(threads, iterations);
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        ClusteringResult result = kMeans.run(options.threads, options.iterations);
         long endTime = System.currentTimeMillis();
+        finish(checkpoint);
 
         long executionTime = endTime - startTime;
         System.out.println(result);
         System.out.println("멀티 스레드 실행 시간: " + executionTime + "ms");
+        export(options, result);
+    }
+
+    private static void runForkJoin(CommandLineOptions options) throws IOException, InterruptedException {
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansForkJoin kMeans = new KMeansForkJoin(dataPoints, options.clusters, options.algorithm);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
+
+        kMeans.setStartIteration(startIteration(options));
+        long startTime = System.currentTimeMillis();
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        ClusteringResult result = kMeans.run(options.threads, options.iterations);
+        long endTime = System.currentTimeMillis();
+        finish(checkpoint);
+
+        long executionTime = endTime - startTime;
+        System.out.println(result);
+        System.out.println("포크 조인 실행 시간: " + executionTime + "ms");
+        export(options, result);
     }
 
-    private static void runMultiProcess(String dataPath, int clusters, int processes, int iterations)
+    private static void runMultiProcess(CommandLineOptions options)
         throws IOException, ClassNotFoundException, InterruptedException {
 
-        double[][] dataPoints = readDataPoints(dataPath);
-        KMeansMultiProcess kMeans = new KMeansMultiProcess(dataPoints, clusters);
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansMultiProcess kMeans = new KMeansMultiProcess(dataPoints, options.clusters, options.algorithm);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        kMeans.setReplyTimeout(options.workerTimeoutSeconds * 1000);
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
 
+        kMeans.setStartIteration(startIteration(options));
         long startTime = System.currentTimeMillis();
-        String result = kMeans.run(processes, iterations);
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        ClusteringResult result = kMeans.run(options.processes, options.iterations);
         long endTime = System.currentTimeMillis();
+        finish(checkpoint);
 
         long executionTime = endTime - startTime;
         System.out.println(result);
         System.out.println("멀티 프로세스 실행 시간: " + executionTime + "ms");
+        export(options, result);
+    }
+
+    private static void runMiniBatch(CommandLineOptions options) throws IOException, InterruptedException {
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansMiniBatch kMeans = new KMeansMiniBatch(dataPoints, options.clusters, options.batchSize, options.seed);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
+
+        kMeans.setStartIteration(startIteration(options));
+        long startTime = System.currentTimeMillis();
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        if (options.resume != null && options.resume.getSeen() != null) {
+            kMeans.setSeen(options.resume.getSeen());
+        }
+        ClusteringResult result = kMeans.run(options.threads, options.iterations);
+        long endTime = System.currentTimeMillis();
+        finish(checkpoint);
+
+        long executionTime = endTime - startTime;
+        System.out.println(result);
+        System.out.println("미니 배치 실행 시간: " + executionTime + "ms");
+        export(options, result);
     }
 
+    /**
+     * dataPath 가 "-" 이면 표준 입력에서 읽는다.
+     */
+    private static void runStreaming(CommandLineOptions options) throws IOException {
+        if (!options.labelsPath.isEmpty()) {
+            throw new IllegalArgumentException("-labelsPath is not supported in streaming mode: points are not kept");
+        }
+        BufferedReader input = "-".equals(options.dataPath)
+            ? new BufferedReader(new InputStreamReader(System.in))
+            : new BufferedReader(new FileReader(options.dataPath));
+        long startTime = System.currentTimeMillis();
+        ClusteringResult result;
+        long pointsSeen;
+        try (CsvPointReader reader = new CsvPointReader(input)) {
+            if (reader.dimensions() == 0) {
+                throw new IOException("Empty CSV: " + options.dataPath);
+            }
+            KMeansStreaming kMeans = new KMeansStreaming(options.clusters, reader.dimensions());
+            result = kMeans.run(reader, options.chunkSize, options.snapshotInterval, System.out);
+            pointsSeen = kMeans.getPointsSeen();
+        }
+        long endTime = System.currentTimeMillis();
+
+        long executionTime = endTime - startTime;
+        System.out.print(result);
+        System.out.println("Points: " + pointsSeen);
+        System.out.println("스트리밍 실행 시간: " + executionTime + "ms");
+        export(options, result);
+    }
 
-    private static double[][] readDataPoints(String dataPath) throws FileNotFoundException {
-        List<double[]> dataList = new ArrayList<>();
+    /**
+     * 워커 프로세스를 한 번만 띄우고 작업 파일의 각 줄(dataPath clusters iterations)을 차례로 실행한다.
+     */
+    private static void runMultiProcessPool(CommandLineOptions options) throws IOException, InterruptedException {
+        List<String> jobs = Files.readAllLines(Path.of(options.jobsPath));
+        try (WorkerPool pool = new WorkerPool(options.processes, options.workerTimeoutSeconds * 1000)) {
+            for (String job : jobs) {
+                String[] parts = job.trim().split("\\s+");
+                if (parts.length < 3) {
+                    continue;
+                }
+                int restarted = pool.checkHealth();
+                if (restarted > 0) {
+                    System.err.println("Restarted " + restarted + " worker(s)");
+                }
+
+                PointStore dataPoints = readDataPoints(parts[0], options.precision, options.threads);
+                int clusters = Integer.parseInt(parts[1]);
+                KMeansMultiProcess kMeans = new KMeansMultiProcess(dataPoints, clusters, options.algorithm);
+                kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+                listen(options, kMeans::addIterationListener);
+                kMeans.setWorkerPool(pool);
+                kMeans.setReplyTimeout(options.workerTimeoutSeconds * 1000);
+
+                long startTime = System.currentTimeMillis();
+                kMeans.setCentroids(seed(options, dataPoints, clusters));
+                ClusteringResult result = kMeans.run(pool.size(), Integer.parseInt(parts[2]));
+                long endTime = System.currentTimeMillis();
+
+                long executionTime = endTime - startTime;
+                System.out.println(job);
+                System.out.println(result);
+                System.out.println("멀티 프로세스(워커 풀) 실행 시간: " + executionTime + "ms");
+            }
+        }
+    }
+
+    private static void runSharedMemory(CommandLineOptions options) throws IOException, InterruptedException {
+        PointStore dataPoints = readDataPoints(options.dataPath, options.precision, options.threads);
+        KMeansSharedMemory kMeans = new KMeansSharedMemory(dataPoints, options.clusters, options.algorithm);
+        kMeans.setConvergence(new Convergence(options.tolerance, options.changeThreshold));
+        listen(options, kMeans::addIterationListener);
+        CheckpointWriter checkpoint = checkpoint(options, dataPoints, kMeans::addIterationListener);
+
+        kMeans.setStartIteration(startIteration(options));
+        long startTime = System.currentTimeMillis();
+        kMeans.setCentroids(initialCentroids(options, dataPoints));
+        ClusteringResult result = kMeans.run(options.processes, options.iterations);
+        long endTime = System.currentTimeMillis();
+        finish(checkpoint);
+
+        long executionTime = endTime - startTime;
+        System.out.println(result);
+        System.out.println("공유 메모리 멀티 프로세스 실행 시간: " + executionTime + "ms");
+        export(options, result);
+    }
+
+    private static void listen(CommandLineOptions options, Consumer<IterationListener> engine) {
+        if (options.metrics != null) {
+            engine.accept(options.metrics);
+        }
+    }
+
+    /**
+     * -checkpoint 가 지정되면 -checkpointInterval 반복마다 체크포인트를 쓰는 리스너를 등록한다.
+     * 이어서 실행한 경우 엔진의 반복 번호가 체크포인트의 반복 수부터 이어지므로 간격도 전체 반복 기준이다.
+     */
+    private static CheckpointWriter checkpoint(CommandLineOptions options, PointStore dataPoints,
+        Consumer<IterationListener> engine) {
+        if (options.checkpointPath.isEmpty()) {
+            return null;
+        }
+        CheckpointWriter writer = new CheckpointWriter(Path.of(options.checkpointPath), options.checkpointInterval,
+            options.checkpointLabels ? dataPoints : null);
+        engine.accept(writer);
+        return writer;
+    }
+
+    /**
+     * 실행이 끝난 뒤 최종 중심점과 레이블로 체크포인트를 한 번 더 쓴다.
+     */
+    private static void finish(CheckpointWriter checkpoint) throws IOException {
+        if (checkpoint != null) {
+            checkpoint.finish();
+        }
+    }
+
+    /**
+     * -labelsPath, -clustersPath 가 지정되면 포인트별 레이블과 클러스터별 중심점/통계를 내보낸다.
+     * 내보내기는 실행 시간에 포함하지 않는다.
+     */
+    private static void export(CommandLineOptions options, ClusteringResult result) throws IOException {
+        if (options.labelsPath.isEmpty() && options.clustersPath.isEmpty()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        if (!options.labelsPath.isEmpty()) {
+            ResultWriter.writeLabels(result, Path.of(options.labelsPath), options.threads);
+        }
+        if (!options.clustersPath.isEmpty()) {
+            ResultWriter.writeClusters(result, Path.of(options.clustersPath), options.threads);
+        }
+        System.out.println("결과 저장 시간: " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * -metrics 경로가 .json 으로 끝나면 JSON 으로, 아니면 CSV 로 반복별 측정값을 기록한다.
+     */
+    private static void writeMetrics(MetricsRecorder metrics, Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            if (path.toString().endsWith(".json")) {
+                metrics.writeJson(writer);
+            } else {
+                metrics.writeCsv(writer);
+            }
+        }
+    }
+
+    /**
+     * -resume 이면 체크포인트의 중심점과 (저장했다면) 레이블을, -warmStart 이면 중심점만 가져온다.
+     * 둘 다 없으면 -init 방식으로 고른다. 체크포인트가 이번 데이터와 맞지 않으면 IOException 을 던진다.
+     */
+    private static double[][] initialCentroids(CommandLineOptions options, PointStore dataPoints)
+        throws IOException, InterruptedException {
+        Checkpoint start = options.resume != null ? options.resume : options.warmStart;
+        if (start == null) {
+            return seed(options, dataPoints, options.clusters);
+        }
+        start.check(options.clusters, dataPoints.dimensions());
+        if (start == options.resume) {
+            start.restoreLabels(dataPoints);
+        }
+        return start.getCentroids();
+    }
+
+    /**
+     * 이어서 실행하면 체크포인트까지 끝난 반복 수부터 세므로, 엔진은 -iterations 까지 남은 반복만 실행한다.
+     */
+    private static int startIteration(CommandLineOptions options) {
+        return options.resume == null ? 0 : options.resume.getIteration();
+    }
+
+    /**
+     * -init 방식으로 초기 중심점을 고른다. 초기화는 알고리즘 실행 시간에 포함된다.
+     */
+    private static double[][] seed(CommandLineOptions options, PointStore dataPoints, int clusters)
+        throws InterruptedException {
+        return Seeding.seed(options.init, dataPoints, clusters, options.seed, options.threads);
+    }
+
+    /**
+     * 바이너리 포인트 파일은 매핑하고, CSV 는 첫 줄의 필드 수를 차원으로 삼아 threads 개의 스레드로 나누어 읽는다.
+     * 읽거나 파싱하지 못하면 빈 데이터로 계속하지 않고 IOException 을 던진다.
+     */
+    private static PointStore readDataPoints(String dataPath, String precision, int threads) throws IOException {
         File file = new File(dataPath);
         if (!file.exists()) {
             System.err.println("File not found: " + dataPath);
             throw new FileNotFoundException();
         }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                double x = Double.parseDouble(parts[0]);
-                double y = Double.parseDouble(parts[1]);
-                dataList.add(new double[] {x, y, 0});
+        try {
+            PointStore points;
+            if (PointFile.isPointFile(file.toPath())) {
+                points = PointFile.map(file.toPath());
+            } else if ("float".equals(precision)) {
+                points = new FloatPointStore(ParallelCsvLoader.loadFloat(file.toPath(), threads));
+            } else {
+                points = new ArrayPointStore(ParallelCsvLoader.load(file.toPath(), threads));
             }
+            if (points.size() == 0) {
+                throw new IOException("No points in " + dataPath);
+            }
+            return points;
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
+            throw e;
         } catch (NumberFormatException e) {
             System.err.println("Error parsing number: " + e.getMessage());
+            throw new IOException("Invalid number in " + dataPath, e);
         }
-
-        double[][] dataPoints = new double[dataList.size()][3];
-        for (int i = 0; i < dataList.size(); i++) {
-            dataPoints[i] = dataList.get(i);
-        }
-        return dataPoints;
     }
 
 
@@ -161,6 +551,36 @@ public class KMeansClustering {
         int threads = 8;
         int processes = 8;
         int dataPoints = 0;
+        int dimensions = 2;
+        String distribution = "uniform";
+        int centers = 10;
+        double spread = 500;
         int iterations = 10;
+        String precision = "double";
+        String outputPath = "";
+        String jobsPath = "";
+        int batchSize = 1024;
+        long seed = 42;
+        // dataGenerate 는 -seed 가 없으면 실행마다 다른 시드를 쓴다.
+        boolean seedGiven = false;
+        int chunkSize = 8192;
+        long snapshotInterval = 0;
+        String init = "first";
+        String kernel = "auto";
+        String metricsPath = "";
+        String labelsPath = "";
+        String clustersPath = "";
+        long workerTimeoutSeconds = 600;
+        String checkpointPath = "";
+        int checkpointInterval = 10;
+        boolean checkpointLabels = false;
+        String resumePath = "";
+        String warmStartPath = "";
+        Checkpoint resume;
+        Checkpoint warmStart;
+        MetricsRecorder metrics;
+        String algorithm = "lloyd";
+        double tolerance = -1;
+        long changeThreshold = -1;
     }
 }
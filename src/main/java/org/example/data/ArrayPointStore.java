@@ -0,0 +1,54 @@
+package org.example.data;
+
+/**
+ * double 정밀도의 구조체 배열(structure-of-arrays) 저장소.
+ * columns[d][i] 가 i 번 포인트의 d 번째 좌표이며, 포인트당 8d + 4 바이트만 사용한다.
+ */
+public class ArrayPointStore implements PointStore {
+
+    private final double[][] columns;
+    private final int[] labels;
+
+    public ArrayPointStore(double[][] columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one dimension is required");
+        }
+        for (double[] column : columns) {
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("All columns must have the same length");
+            }
+        }
+        this.columns = columns;
+        this.labels = new int[columns[0].length];
+    }
+
+    @Override
+    public int size() {
+        return labels.length;
+    }
+
+    @Override
+    public int dimensions() {
+        return columns.length;
+    }
+
+    @Override
+    public double coord(int index, int dimension) {
+        return columns[dimension][index];
+    }
+
+    @Override
+    public void copyColumn(int dimension, int start, int length, double[] target) {
+        System.arraycopy(columns[dimension], start, target, 0, length);
+    }
+
+    @Override
+    public int label(int index) {
+        return labels[index];
+    }
+
+    @Override
+    public void setLabel(int index, int label) {
+        labels[index] = label;
+    }
+}
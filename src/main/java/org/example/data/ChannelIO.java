@@ -0,0 +1,123 @@
+package org.example.data;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 파일 채널 입출력에서 반복되는 루프를 모은 도우미.
+ * 채널의 write/read 는 한 번에 버퍼를 다 처리한다는 보장이 없으므로 끝까지 반복한다.
+ * 병렬로 나누어 읽고 쓰는 작업의 Future 는 {@link #await(Future, String)} 로 기다려 작업의 IOException 을 그대로 되살린다.
+ */
+public final class ChannelIO {
+
+    private ChannelIO() {
+    }
+
+    /**
+     * buffer 의 남은 바이트를 position 부터 모두 쓴다. 여러 스레드가 서로 다른 위치에 동시에 써도 된다.
+     *
+     * @return 쓴 바이트 수
+     */
+    public static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * 쓰기 위해 채운 buffer 를 position 부터 모두 쓰고 비운다.
+     *
+     * @return 쓴 바이트 수
+     */
+    public static int drain(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int written = write(channel, buffer, position);
+        buffer.clear();
+        return written;
+    }
+
+    /**
+     * 쓰기 위해 채운 buffer 를 채널의 현재 위치에 모두 쓰고 비운다.
+     */
+    public static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * buffer 가 가득 찰 때까지 position 부터 읽는다.
+     *
+     * @throws EOFException 그 전에 파일이 끝났을 때
+     */
+    public static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("File ends before byte " + (start + buffer.limit()));
+            }
+        }
+    }
+
+    /**
+     * 읽기 모드인 buffer 에 최소 bytes 만큼 남아 있도록 채널의 현재 위치에서 채운다.
+     *
+     * @throws EOFException 그 전에 채널이 끝났을 때
+     */
+    public static void fill(ReadableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Channel ended with " + buffer.position() + " of " + bytes + " bytes");
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * 작업이 끝나기를 기다린다. 작업이 던진 IOException(UncheckedIOException 으로 감싼 것 포함)과
+     * 런타임 예외는 그대로 다시 던진다.
+     *
+     * @param action 인터럽트되었을 때 메시지에 쓸 작업 설명. 예: "loading"
+     */
+    public static <T> T await(Future<T> future, String action) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while " + action, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException)cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.data;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 한 줄에 한 포인트씩 쉼표로 구분된 좌표를 담은 CSV 를 고정 크기 청크 단위로 읽는 스트리밍 리더.
+ * 입력 전체를 메모리에 올리지 않으므로 파일뿐 아니라 끝나지 않는 표준 입력에도 사용할 수 있다.
+ * 빈 줄은 건너뛰고, 필드 수가 첫 줄과 다른 줄은 IOException 으로 거부한다.
+ * {@link ParallelCsvLoader} 와 {@link PointFile#convertCsv} 도 같은 규칙을 따른다.
+ */
+public class CsvPointReader implements Closeable {
+
+    private static final int PEEK_LIMIT = 1 << 16;
+
+    private final BufferedReader reader;
+    private int dimensions;
+
+    public CsvPointReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 첫 번째 비어 있지 않은 줄의 필드 수. 줄을 소비하지 않는다.
+     *
+     * @return 입력이 비어 있으면 0
+     */
+    public int dimensions() throws IOException {
+        if (dimensions == 0) {
+            reader.mark(PEEK_LIMIT);
+            String line;
+            while ((line = reader.readLine()) != null && line.isBlank()) {
+                reader.mark(PEEK_LIMIT);
+            }
+            reader.reset();
+            if (line != null) {
+                dimensions = countFields(line);
+            }
+        }
+        return dimensions;
+    }
+
+    /**
+     * 최대 columns[0].length 개의 포인트를 읽어 열 단위로 채운다.
+     *
+     * @return 읽은 포인트 수. 입력이 끝났으면 0
+     */
+    public int read(double[][] columns) throws IOException {
+        return read(columns, 0);
+    }
+
+    /**
+     * columns 의 offset 위치부터 남은 칸만큼 포인트를 읽는다. 빈 줄은 건너뛴다.
+     *
+     * @throws IOException 필드 수가 columns.length 와 다른 줄이 있을 때
+     */
+    public int read(double[][] columns, int offset) throws IOException {
+        int count = 0;
+        String line;
+        while (offset + count < columns[0].length && (line = reader.readLine()) != null) {
+            if (parseLine(line, columns, offset + count)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static int countFields(String line) {
+        int fields = 1;
+        for (int i = line.indexOf(','); i >= 0; i = line.indexOf(',', i + 1)) {
+            fields++;
+        }
+        return fields;
+    }
+
+    /**
+     * "v0,v1,...,v(d-1)" 한 줄을 columns[*][index] 에 기록한다.
+     *
+     * @return 기록했으면 true, 빈 줄이면 false
+     * @throws IOException 필드 수가 columns.length 와 다를 때
+     */
+    public static boolean parseLine(String line, double[][] columns, int index) throws IOException {
+        if (line.isBlank()) {
+            return false;
+        }
+        if (countFields(line) != columns.length) {
+            throw new IOException("Expected " + columns.length + " fields: " + line);
+        }
+        int from = 0;
+        for (int d = 0; d < columns.length; d++) {
+            int comma = line.indexOf(',', from);
+            int to = comma < 0 ? line.length() : comma;
+            columns[d][index] = Double.parseDouble(line.substring(from, to).trim());
+            from = to + 1;
+        }
+        return true;
+    }
+}
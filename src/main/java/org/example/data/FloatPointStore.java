@@ -0,0 +1,49 @@
+package org.example.data;
+
+/**
+ * float 정밀도의 구조체 배열 저장소.
+ * 좌표 정밀도를 낮추는 대신 포인트당 4d + 4 바이트만 사용한다.
+ */
+public class FloatPointStore implements PointStore {
+
+    private final float[][] columns;
+    private final int[] labels;
+
+    public FloatPointStore(float[][] columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one dimension is required");
+        }
+        for (float[] column : columns) {
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("All columns must have the same length");
+            }
+        }
+        this.columns = columns;
+        this.labels = new int[columns[0].length];
+    }
+
+    @Override
+    public int size() {
+        return labels.length;
+    }
+
+    @Override
+    public int dimensions() {
+        return columns.length;
+    }
+
+    @Override
+    public double coord(int index, int dimension) {
+        return columns[dimension][index];
+    }
+
+    @Override
+    public int label(int index) {
+        return labels[index];
+    }
+
+    @Override
+    public void setLabel(int index, int label) {
+        labels[index] = label;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * {@link PointFile} 을 메모리 매핑하여 힙 밖의 좌표를 그대로 읽는 저장소.
+ * 하나의 매핑은 2GB 를 넘을 수 없으므로 각 열을 1GB 세그먼트로 나누어 매핑한다.
+ * 파일의 일부 구간만 매핑할 수도 있으며, 레이블만 힙에 둔다.
+ */
+public class MappedPointStore implements PointStore {
+
+    private final Path path;
+    private final int first;
+    private final Column[] columns;
+    private final int[] labels;
+
+    MappedPointStore(Path path, FileChannel channel, long count, int dimensions, int first, int size)
+        throws IOException {
+        long columnBytes = count * Double.BYTES;
+        long offset = PointFile.HEADER_BYTES + (long)first * Double.BYTES;
+        long length = (long)size * Double.BYTES;
+        this.path = path;
+        this.first = first;
+        this.columns = new Column[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            columns[d] = new Column(channel, offset + d * columnBytes, length);
+        }
+        this.labels = new int[size];
+    }
+
+    /**
+     * 매핑된 파일의 경로. 다른 프로세스가 같은 파일을 다시 매핑할 때 사용한다.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 이 저장소의 0 번 포인트가 파일에서 몇 번째 포인트인지.
+     */
+    public int getFirst() {
+        return first;
+    }
+
+    @Override
+    public int size() {
+        return labels.length;
+    }
+
+    @Override
+    public int dimensions() {
+        return columns.length;
+    }
+
+    @Override
+    public double coord(int index, int dimension) {
+        return columns[dimension].get(index);
+    }
+
+    @Override
+    public int label(int index) {
+        return labels[index];
+    }
+
+    @Override
+    public void setLabel(int index, int label) {
+        labels[index] = label;
+    }
+
+    private static class Column {
+
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final MappedByteBuffer[] segments;
+
+        Column(FileChannel channel, long offset, long length) throws IOException {
+            int segmentCount = (int)((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long position = (long)i << SEGMENT_SHIFT;
+                long segmentLength = Math.min(1L << SEGMENT_SHIFT, length - position);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + position, segmentLength);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        double get(int index) {
+            long offset = (long)index * Double.BYTES;
+            return segments[(int)(offset >>> SEGMENT_SHIFT)].getDouble((int)(offset & SEGMENT_MASK));
+        }
+    }
+}
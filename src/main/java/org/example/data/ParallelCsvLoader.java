@@ -0,0 +1,330 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CSV 를 줄 경계에 맞춘 바이트 구간으로 나누어 여러 스레드에서 읽는 로더.
+ * 첫 번째 패스에서 구간마다 포인트 수를 세어 최종 열 배열을 정확한 크기로 한 번만 할당하고,
+ * 두 번째 패스에서 각 구간이 자기 위치에 바로 파싱해 넣으므로 병합 시 복사가 없다.
+ * 구간은 메모리 매핑하여 읽으며 숫자는 바이트에서 직접 변환하여 포인트마다 객체를 만들지 않는다.
+ * {@link CsvPointReader} 와 같이 빈 줄은 건너뛰고, 필드 수가 첫 줄과 다른 줄이 있거나 포인트가 하나도 없으면 IOException 을 던진다.
+ * {@link #loadFloat(Path, int)} 는 같은 방식으로 float 열 배열에 바로 파싱하므로 double 열 배열을 만들지 않는다.
+ */
+public final class ParallelCsvLoader {
+
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 1L << 28;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int ALIGN_BYTES = 1 << 12;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private ParallelCsvLoader() {
+    }
+
+    /**
+     * @return 차원별 열 배열 columns[d][i]
+     */
+    public static double[][] load(Path path, int threads) throws IOException {
+        DoubleColumns columns = new DoubleColumns();
+        load(path, threads, columns);
+        return columns.values;
+    }
+
+    /**
+     * {@link #load(Path, int)} 와 같지만 각 값을 float 로 좁혀 float 열 배열에 바로 넣는다.
+     */
+    public static float[][] loadFloat(Path path, int threads) throws IOException {
+        FloatColumns columns = new FloatColumns();
+        load(path, threads, columns);
+        return columns.values;
+    }
+
+    private static void load(Path path, int threads, Columns columns) throws IOException {
+        int dimensions;
+        try (CsvPointReader reader = new CsvPointReader(Files.newBufferedReader(path))) {
+            dimensions = reader.dimensions();
+        }
+        if (dimensions == 0) {
+            throw new IOException("Empty CSV: " + path);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, threads);
+            int chunks = bounds.length - 1;
+
+            List<Future<Integer>> counted = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                long start = bounds[c];
+                long end = bounds[c + 1];
+                counted.add(executor.submit(() -> count(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), dimensions)));
+            }
+            int[] offsets = new int[chunks + 1];
+            for (int c = 0; c < chunks; c++) {
+                long next = (long)offsets[c] + ChannelIO.await(counted.get(c), "loading");
+                if (next > Integer.MAX_VALUE) {
+                    throw new IOException("Too many points in " + path);
+                }
+                offsets[c + 1] = (int)next;
+            }
+
+            columns.allocate(dimensions, offsets[chunks]);
+            List<Future<Integer>> parsed = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                long start = bounds[c];
+                long end = bounds[c + 1];
+                int offset = offsets[c];
+                parsed.add(executor.submit(() -> parse(
+                    channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), columns, dimensions, offset)));
+            }
+            for (Future<Integer> future : parsed) {
+                ChannelIO.await(future, "loading");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 파일을 스레드 수의 몇 배 되는 구간으로 나누고, 각 경계를 다음 줄의 시작으로 옮긴다.
+     */
+    private static long[] chunkBounds(FileChannel channel, int threads) throws IOException {
+        long size = channel.size();
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES,
+            Math.min(MAX_CHUNK_BYTES, size / ((long)threads * CHUNKS_PER_THREAD) + 1));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = 0;
+        while (position < size) {
+            long next = position + chunkBytes >= size ? size : nextLine(channel, position + chunkBytes);
+            // 한 줄이 구간보다 길어도 매핑 한도를 넘지 않는 한 그대로 한 구간에 둔다.
+            if (next - position > Integer.MAX_VALUE) {
+                throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes");
+            }
+            bounds.add(next);
+            position = next;
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BYTES);
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static int count(ByteBuffer chunk, int dimensions) {
+        int limit = chunk.limit();
+        int points = 0;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineEnd(chunk, lineStart, limit);
+            if (isPoint(chunk, lineStart, lineEnd, dimensions)) {
+                points++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return points;
+    }
+
+    private static int parse(ByteBuffer chunk, Columns columns, int dimensions, int offset) {
+        int limit = chunk.limit();
+        int index = offset;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineEnd(chunk, lineStart, limit);
+            if (isPoint(chunk, lineStart, lineEnd, dimensions)) {
+                int fieldStart = lineStart;
+                for (int d = 0; d < dimensions; d++) {
+                    int fieldEnd = fieldStart;
+                    while (fieldEnd < lineEnd && chunk.get(fieldEnd) != ',') {
+                        fieldEnd++;
+                    }
+                    columns.set(d, index, parseDouble(chunk, fieldStart, fieldEnd));
+                    fieldStart = fieldEnd + 1;
+                }
+                index++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return index - offset;
+    }
+
+    private static int lineEnd(ByteBuffer chunk, int from, int limit) {
+        int i = from;
+        while (i < limit && chunk.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 공백이 아닌 문자가 있는 줄인지. 필드 수가 dimensions 와 다르면 첫 패스에서 UncheckedIOException 을 던진다.
+     */
+    private static boolean isPoint(ByteBuffer chunk, int from, int to, int dimensions) {
+        int fields = 1;
+        boolean blank = true;
+        for (int i = from; i < to; i++) {
+            byte b = chunk.get(i);
+            if (b == ',') {
+                fields++;
+            } else if (b > ' ') {
+                blank = false;
+            }
+        }
+        if (blank) {
+            return false;
+        }
+        if (fields != dimensions) {
+            byte[] line = new byte[to - from];
+            chunk.get(from, line);
+            throw new UncheckedIOException(new IOException(
+                "Expected " + dimensions + " fields: " + new String(line, StandardCharsets.UTF_8).strip()));
+        }
+        return true;
+    }
+
+    /**
+     * [from, to) 의 10 진수를 읽는다. 가수가 2^53 이하이고 10 의 지수가 22 이하이면 한 번의 곱셈/나눗셈으로
+     * 정확히 반올림된 값을 얻을 수 있다(Clinger). 그 밖의 드문 입력만 문자열로 바꾸어 Double.parseDouble 에 맡긴다.
+     */
+    static double parseDouble(ByteBuffer chunk, int from, int to) {
+        while (from < to && chunk.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && chunk.get(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = false;
+        if (i < to && (chunk.get(i) == '-' || chunk.get(i) == '+')) {
+            negative = chunk.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        boolean exact = true;
+        for (; i < to; i++) {
+            byte b = chunk.get(i);
+            if (b >= '0' && b <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else {
+                    exact = false;
+                    if (!fraction) {
+                        exponent++;
+                    }
+                }
+                digits++;
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (i < to && (chunk.get(i) == 'e' || chunk.get(i) == 'E') && digits > 0) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (chunk.get(i) == '-' || chunk.get(i) == '+')) {
+                negativeExponent = chunk.get(i) == '-';
+                i++;
+            }
+            int value = 0;
+            int exponentDigits = 0;
+            for (; i < to && chunk.get(i) >= '0' && chunk.get(i) <= '9'; i++) {
+                value = Math.min(value * 10 + (chunk.get(i) - '0'), 1_000_000);
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                exact = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != to || digits == 0 || !exact || mantissa > MAX_EXACT_MANTISSA
+            || exponent < -22 || exponent > 22) {
+            return slowParse(chunk, from, to);
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private static double slowParse(ByteBuffer chunk, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = chunk.get(from + i);
+        }
+        return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 파싱한 값을 받을 열 배열. 모든 구간의 포인트 수를 센 뒤 한 번 할당한다.
+     */
+    private interface Columns {
+        void allocate(int dimensions, int count);
+
+        void set(int dimension, int index, double value);
+    }
+
+    private static final class DoubleColumns implements Columns {
+        double[][] values;
+
+        @Override
+        public void allocate(int dimensions, int count) {
+            values = new double[dimensions][count];
+        }
+
+        @Override
+        public void set(int dimension, int index, double value) {
+            values[dimension][index] = value;
+        }
+    }
+
+    private static final class FloatColumns implements Columns {
+        float[][] values;
+
+        @Override
+        public void allocate(int dimensions, int count) {
+            values = new float[dimensions][count];
+        }
+
+        @Override
+        public void set(int dimension, int index, double value) {
+            values[dimension][index] = (float)value;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 바이너리 포인트 파일 형식.
+ *
+ * <pre>
+ * magic(int) version(int) count(long) dimensions(int) reserved(int)
+ * column[0][0..count) column[1][0..count) ... column[dimensions-1][0..count)
+ * </pre>
+ * 모든 값은 little-endian 이며 좌표는 차원별 열 단위로 연속 저장된다.
+ */
+public class PointFile {
+
+    public static final int MAGIC = 0x4B4D5054;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 24;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private PointFile() {
+    }
+
+    public static boolean isPointFile(Path path) throws IOException {
+        if (Files.size(path) < HEADER_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    public static MappedPointStore map(Path path) throws IOException {
+        return map(path, 0, -1);
+    }
+
+    /**
+     * [start, end) 구간의 포인트만 매핑한다. end 가 음수이면 파일 끝까지 매핑한다.
+     */
+    public static MappedPointStore map(Path path, int start, int end) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a point file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported point file version: " + version);
+            }
+            long count = header.getLong();
+            int dimensions = header.getInt();
+            if (dimensions < 1) {
+                throw new IOException("Unsupported dimensions: " + dimensions);
+            }
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("Too many points: " + count);
+            }
+            if (channel.size() < HEADER_BYTES + count * Double.BYTES * dimensions) {
+                throw new IOException("Truncated point file: " + path);
+            }
+            if (end < 0) {
+                end = (int)count;
+            }
+            if (start < 0 || start > end || end > count) {
+                throw new IOException("Invalid range [" + start + ", " + end + ") for " + count + " points");
+            }
+            // 매핑은 채널을 닫은 뒤에도 유효하다.
+            return new MappedPointStore(path, channel, count, dimensions, start, end - start);
+        }
+    }
+
+    public static void write(PointStore points, Path path) throws IOException {
+        int size = points.size();
+        int dimensions = points.dimensions();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(channel, size, dimensions);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = HEADER_BYTES;
+            for (int d = 0; d < dimensions; d++) {
+                for (int i = 0; i < size; i++) {
+                    if (!buffer.hasRemaining()) {
+                        position += ChannelIO.drain(channel, buffer, position);
+                    }
+                    buffer.putDouble(points.coord(i, d));
+                }
+            }
+            ChannelIO.drain(channel, buffer, position);
+        }
+    }
+
+    /**
+     * dataGenerate 가 만든 CSV 를 힙에 올리지 않고 바이너리 형식으로 변환한다.
+     * 첫 번째 패스에서 줄 수와 차원을 세고, 두 번째 패스에서 차원별 열을 각자의 위치에 기록한다.
+     * 모든 열 버퍼는 같은 속도로 차므로 함께 비운다.
+     */
+    public static void convertCsv(Path csvPath, Path outputPath) throws IOException {
+        long count;
+        int dimensions;
+        try (CsvPointReader reader = new CsvPointReader(Files.newBufferedReader(csvPath))) {
+            dimensions = reader.dimensions();
+        }
+        if (dimensions == 0) {
+            throw new IOException("Empty CSV: " + csvPath);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(csvPath)) {
+            count = reader.lines().filter(line -> !line.isBlank()).count();
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Too many points: " + count);
+        }
+
+        try (FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedReader reader = Files.newBufferedReader(csvPath)) {
+            writeHeader(channel, (int)count, dimensions);
+            int bufferBytes = Math.max(1 << 12, (BUFFER_BYTES / dimensions) & ~(Double.BYTES - 1));
+            ByteBuffer[] buffers = new ByteBuffer[dimensions];
+            long[] positions = new long[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                buffers[d] = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+                positions[d] = HEADER_BYTES + d * count * Double.BYTES;
+            }
+
+            double[][] point = new double[dimensions][1];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!CsvPointReader.parseLine(line, point, 0)) {
+                    continue;
+                }
+                if (!buffers[0].hasRemaining()) {
+                    for (int d = 0; d < dimensions; d++) {
+                        positions[d] += ChannelIO.drain(channel, buffers[d], positions[d]);
+                    }
+                }
+                for (int d = 0; d < dimensions; d++) {
+                    buffers[d].putDouble(point[d][0]);
+                }
+            }
+            for (int d = 0; d < dimensions; d++) {
+                ChannelIO.drain(channel, buffers[d], positions[d]);
+            }
+        }
+    }
+
+    static void writeHeader(FileChannel channel, int count, int dimensions) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(count).putInt(dimensions).putInt(0);
+        ChannelIO.drain(channel, header, 0);
+    }
+}
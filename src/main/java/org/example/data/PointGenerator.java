@@ -0,0 +1,236 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 벤치마크용 합성 데이터 생성기.
+ * <ul>
+ *   <li>uniform: 모든 좌표가 [-10000, 10000] 의 정수 (기존 dataGenerate 와 같은 분포)</li>
+ *   <li>gaussian: [-10000, 10000]^d 에 균등하게 놓인 centers 개의 중심 주위에 표준편차 spread 로 퍼진 가우시안 혼합.
+ *       좌표는 소수 셋째 자리로 반올림하여 CSV 와 바이너리가 같은 값을 갖게 한다.</li>
+ * </ul>
+ * 포인트는 고정 크기 청크로 나누어 여러 스레드에서 만든다. 시드 하나로 만든 루트 SplittableRandom 을 청크 순서대로
+ * split 하여 청크마다 독립된 난수열을 주므로, 결과는 스레드 수와 무관하게 재현되고 시드가 다르면 청크 난수열도 겹치지 않는다. 바이너리는 청크가 자기 열 위치에 바로 쓰고,
+ * CSV 는 청크별로 만든 바이트 배열을 순서대로 이어 쓴다.
+ */
+public final class PointGenerator {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int RANGE = 10000;
+    private static final double SCALE = 1000;
+
+    private final long count;
+    private final int dimensions;
+    private final String distribution;
+    private final double spread;
+    private final long seed;
+    private final double[][] centers;
+
+    public PointGenerator(long count, int dimensions, String distribution, int centers, double spread, long seed) {
+        if (!"uniform".equals(distribution) && !"gaussian".equals(distribution)) {
+            throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        if ("gaussian".equals(distribution) && centers < 1) {
+            throw new IllegalArgumentException("At least one center is required");
+        }
+        this.count = count;
+        this.dimensions = dimensions;
+        this.distribution = distribution;
+        this.spread = spread;
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed).split();
+        this.centers = new double[centers][dimensions];
+        for (double[] center : this.centers) {
+            for (int d = 0; d < dimensions; d++) {
+                center[d] = random.nextInt(2 * RANGE + 1) - RANGE;
+            }
+        }
+    }
+
+    /**
+     * path 가 .bin 으로 끝나면 {@link PointFile} 형식으로, 아니면 CSV 로 쓴다.
+     */
+    public void write(Path path, int threads) throws IOException {
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Too many points: " + count);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (path.toString().endsWith(".bin")) {
+                writeBinary(channel, executor);
+            } else {
+                writeCsv(channel, executor, threads);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int chunks() {
+        return (int)((count + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * 청크용 난수열을 split 할 루트. 첫 split 은 생성자에서 중심점에 쓴 것과 같으므로 건너뛴다.
+     */
+    private SplittableRandom chunkRoot() {
+        SplittableRandom root = new SplittableRandom(seed);
+        root.split();
+        return root;
+    }
+
+    private void writeBinary(FileChannel channel, ExecutorService executor) throws IOException {
+        PointFile.writeHeader(channel, (int)count, dimensions);
+        SplittableRandom root = chunkRoot();
+        Deque<Future<?>> pending = new ArrayDeque<>();
+        for (int c = 0; c < chunks(); c++) {
+            int chunk = c;
+            SplittableRandom random = root.split();
+            pending.add(executor.submit(() -> {
+                double[][] columns = generate(chunk, random);
+                int length = columns[0].length;
+                ByteBuffer buffer = ByteBuffer.allocate(length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int d = 0; d < dimensions; d++) {
+                    buffer.clear();
+                    buffer.asDoubleBuffer().put(columns[d]);
+                    long position = PointFile.HEADER_BYTES + ((long)d * count + (long)chunk * CHUNK_SIZE) * Double.BYTES;
+                    ChannelIO.write(channel, buffer, position);
+                }
+                return null;
+            }));
+        }
+        while (!pending.isEmpty()) {
+            ChannelIO.await(pending.poll(), "generating");
+        }
+    }
+
+    /**
+     * CSV 줄 길이는 미리 알 수 없으므로 청크를 병렬로 만들되 앞선 청크부터 차례로 쓴다.
+     * 메모리를 제한하기 위해 스레드 수의 두 배까지만 미리 만든다.
+     */
+    private void writeCsv(FileChannel channel, ExecutorService executor, int threads) throws IOException {
+        SplittableRandom root = chunkRoot();
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        long position = 0;
+        int chunks = chunks();
+        int next = 0;
+        while (next < chunks || !pending.isEmpty()) {
+            while (next < chunks && pending.size() < threads * 2) {
+                int chunk = next++;
+                SplittableRandom random = root.split();
+                pending.add(executor.submit(() -> formatCsv(generate(chunk, random))));
+            }
+            byte[] bytes = ChannelIO.await(pending.poll(), "generating");
+            position += ChannelIO.write(channel, ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    private double[][] generate(int chunk, SplittableRandom random) {
+        int length = (int)Math.min(CHUNK_SIZE, count - (long)chunk * CHUNK_SIZE);
+        double[][] columns = new double[dimensions][length];
+        boolean gaussian = "gaussian".equals(distribution);
+        for (int i = 0; i < length; i++) {
+            double[] center = gaussian ? centers[random.nextInt(centers.length)] : null;
+            for (int d = 0; d < dimensions; d++) {
+                columns[d][i] = gaussian
+                    ? Math.round((center[d] + spread * random.nextGaussian()) * SCALE) / SCALE
+                    : random.nextInt(2 * RANGE + 1) - RANGE;
+            }
+        }
+        return columns;
+    }
+
+    private static byte[] formatCsv(double[][] columns) {
+        int length = columns[0].length;
+        AsciiBuffer buffer = new AsciiBuffer(length * columns.length * 12);
+        for (int i = 0; i < length; i++) {
+            for (int d = 0; d < columns.length; d++) {
+                if (d > 0) {
+                    buffer.append(',');
+                }
+                buffer.appendFixed(columns[d][i]);
+            }
+            buffer.append('\n');
+        }
+        return buffer.toBytes();
+    }
+
+    /**
+     * 숫자를 문자열 객체 없이 바로 ASCII 바이트로 쓰는 버퍼.
+     * 정수는 그대로, 그 밖의 값은 소수 셋째 자리까지 쓴다.
+     */
+    private static final class AsciiBuffer {
+        private byte[] bytes;
+        private int size;
+        private final byte[] digits = new byte[20];
+
+        AsciiBuffer(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 64)];
+        }
+
+        void append(char c) {
+            ensure(1);
+            bytes[size++] = (byte)c;
+        }
+
+        void appendFixed(double value) {
+            long scaled = Math.round(value * SCALE);
+            if (scaled < 0) {
+                append('-');
+                scaled = -scaled;
+            }
+            appendDigits(scaled / (long)SCALE);
+            long fraction = scaled % (long)SCALE;
+            if (fraction != 0) {
+                append('.');
+                ensure(3);
+                bytes[size++] = (byte)('0' + fraction / 100);
+                bytes[size++] = (byte)('0' + fraction / 10 % 10);
+                bytes[size++] = (byte)('0' + fraction % 10);
+            }
+        }
+
+        private void appendDigits(long value) {
+            int n = 0;
+            do {
+                digits[n++] = (byte)('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            ensure(n);
+            while (n > 0) {
+                bytes[size++] = digits[--n];
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + extra)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+        }
+
+        byte[] toBytes() {
+            byte[] result = new byte[size];
+            System.arraycopy(bytes, 0, result, 0, size);
+            return result;
+        }
+    }
+}
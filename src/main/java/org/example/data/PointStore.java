@@ -0,0 +1,35 @@
+package org.example.data;
+
+/**
+ * 모든 K-means 엔진이 공유하는 데이터 포인트 저장소.
+ * 좌표와 클러스터 레이블을 포인트 객체가 아닌 열(column) 단위의 기본형 배열로 보관하여
+ * 할당/갱신 루프가 메모리를 선형으로 순회하도록 한다. 차원 d 마다 하나의 열을 가진다.
+ */
+public interface PointStore {
+
+    int size();
+
+    int dimensions();
+
+    double coord(int index, int dimension);
+
+    int label(int index);
+
+    void setLabel(int index, int label);
+
+    /**
+     * dimension 열의 [start, start + length) 구간을 target 앞쪽에 복사한다.
+     */
+    default void copyColumn(int dimension, int start, int length, double[] target) {
+        for (int i = 0; i < length; i++) {
+            target[i] = coord(start + i, dimension);
+        }
+    }
+
+    default void copyPoint(int index, double[] target) {
+        int dimensions = dimensions();
+        for (int d = 0; d < dimensions; d++) {
+            target[d] = coord(index, d);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.kmeans;
+
+import org.example.data.PointStore;
+
+/**
+ * 포인트를 가장 가까운 중심점에 할당하면서 클러스터별 합계(sums[c*d + dim])와 개수를 누적하는 전략.
+ * 매 반복마다 {@link #prepare(double[][])} 를 한 번 호출한 뒤 서로 겹치지 않는 구간에 대해
+ * {@link #assign(int, int, double[], int[])} 를 여러 스레드에서 동시에 호출할 수 있다.
+ * assign 은 레이블이 바뀐 포인트 수를 반환한다.
+ */
+public interface Assigner {
+
+    void prepare(double[][] centroids);
+
+    int assign(int start, int end, double[] sums, int[] counts);
+
+    static Assigner create(String algorithm, PointStore points, int k) {
+        switch (algorithm) {
+            case "lloyd":
+                return Kernels.lloyd(points, k);
+            case "hamerly":
+                return new HamerlyAssigner(points, k);
+            case "kdtree":
+                return new KdTreeAssigner(points, k);
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+}
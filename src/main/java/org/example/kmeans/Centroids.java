@@ -0,0 +1,59 @@
+package org.example.kmeans;
+
+import org.example.data.PointStore;
+
+/**
+ * 엔진들이 공유하는 중심점 계산 함수. 합계는 클러스터마다 차원 수만큼 이어진 sums[c * d + dim] 형식이다.
+ */
+final class Centroids {
+
+    private Centroids() {
+    }
+
+    /**
+     * 처음 k 개의 포인트를 초기 중심점으로 복사한다. 모든 엔진이 생성될 때 거치므로 k 검사도 여기서 한다.
+     */
+    static double[][] initial(PointStore points, int k) {
+        checkCount(points, k);
+        double[][] centroids = new double[k][points.dimensions()];
+        for (int i = 0; i < k; i++) {
+            points.copyPoint(i, centroids[i]);
+        }
+        return centroids;
+    }
+
+    /**
+     * 초기화 방식과 관계없이 1 이상 포인트 수 이하의 k 만 허용한다.
+     */
+    static void checkCount(PointStore points, int k) {
+        if (k < 1 || points.size() < k) {
+            throw new IllegalArgumentException("Cannot choose " + k + " initial centroids from "
+                + points.size() + " points");
+        }
+    }
+
+    /**
+     * 클러스터별 합계와 개수로 새 중심점을 만든다. 포인트가 없는 클러스터의 중심점은 원점이 된다.
+     */
+    static double[][] fromSums(double[] sums, int[] counts, int k, int dimensions) {
+        double[][] centroids = new double[k][dimensions];
+        for (int i = 0; i < k; i++) {
+            if (counts[i] > 0) {
+                for (int d = 0; d < dimensions; d++) {
+                    centroids[i][d] = sums[i * dimensions + d] / counts[i];
+                }
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * 포인트 하나의 좌표를 cluster 의 합계에 더한다.
+     */
+    static void accumulate(double[] sums, int cluster, double[] point) {
+        int offset = cluster * point.length;
+        for (int d = 0; d < point.length; d++) {
+            sums[offset + d] += point[d];
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.kmeans;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.example.data.ChannelIO;
+import org.example.data.PointStore;
+
+/**
+ * 실행 도중의 중심점, 끝난 반복 수, (선택적으로) 포인트별 레이블과 미니 배치의 클러스터별 표본 수를 담는 체크포인트.
+ * <p>
+ * 파일 형식 (little-endian):
+ * <pre>
+ * magic(int) = 'KMCP'  version(int) = 2  k(int)  d(int)  iteration(int)  labelCount(int)  seenCount(int)
+ * centroids(double)[k*d]  labels(int)[labelCount]  seen(long)[seenCount]
+ * </pre>
+ * 레이블이나 표본 수를 저장하지 않으면 labelCount, seenCount 는 0 이다. seenCount 가 없는 버전 1 파일도 읽는다. 쓰기는 임시 파일에 쓴 뒤 이름을 바꾸므로
+ * 도중에 프로세스가 죽어도 직전 체크포인트가 남는다. 읽을 때 모든 레이블이 [0, k) 안에 있는지, 이어서 실행할 때 k, d, 포인트 수가
+ * 이번 실행과 같은지 확인하고, 다르면 무엇이 맞지 않는지 담은 IOException 을 던진다.
+ */
+public final class Checkpoint {
+
+    private static final int MAGIC = 0x4B4D4350;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 6;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final double[][] centroids;
+    private final int iteration;
+    private final int[] labels;
+    private final long[] seen;
+
+    /**
+     * @param labels 저장하지 않으면 null
+     */
+    public Checkpoint(double[][] centroids, int iteration, int[] labels) {
+        this(centroids, iteration, labels, null);
+    }
+
+    /**
+     * @param seen 미니 배치의 클러스터별 누적 표본 수. 저장하지 않으면 null
+     */
+    public Checkpoint(double[][] centroids, int iteration, int[] labels, long[] seen) {
+        this.centroids = centroids;
+        this.iteration = iteration;
+        this.labels = labels;
+        this.seen = seen;
+    }
+
+    public double[][] getCentroids() {
+        return centroids;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public boolean hasLabels() {
+        return labels != null;
+    }
+
+    /**
+     * @return 미니 배치의 클러스터별 누적 표본 수. 저장하지 않았으면 null
+     */
+    public long[] getSeen() {
+        return seen;
+    }
+
+    /**
+     * 중심점 수와 차원이 이번 실행과 맞는지 확인한다.
+     */
+    public void check(int k, int dimensions) throws IOException {
+        if (centroids.length != k || centroids[0].length != dimensions) {
+            throw new IOException("Checkpoint has " + centroids.length + " clusters of "
+                + centroids[0].length + " dimensions, expected " + k + " of " + dimensions);
+        }
+    }
+
+    /**
+     * 이어서 실행할 때 저장된 레이블을 points 에 기록한다. 레이블을 저장하지 않았으면 아무것도 하지 않는다.
+     *
+     * @return 레이블을 복원했으면 true
+     * @throws IOException 저장된 레이블 수가 포인트 수와 다를 때 (다른 데이터에서 만든 체크포인트)
+     */
+    public boolean restoreLabels(PointStore points) throws IOException {
+        if (labels == null) {
+            return false;
+        }
+        if (labels.length != points.size()) {
+            throw new IOException("Checkpoint has labels for " + labels.length + " points but the data has "
+                + points.size() + "; use -warmStart to start from its centroids on different data");
+        }
+        for (int i = 0; i < labels.length; i++) {
+            points.setLabel(i, labels[i]);
+        }
+        return true;
+    }
+
+    /**
+     * points 의 현재 레이블을 그대로 복사한다.
+     */
+    public static int[] labelsOf(PointStore points) {
+        int[] labels = new int[points.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = points.label(i);
+        }
+        return labels;
+    }
+
+    public void write(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        int k = centroids.length;
+        int dimensions = centroids[0].length;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(k).putInt(dimensions).putInt(iteration)
+                .putInt(labels == null ? 0 : labels.length).putInt(seen == null ? 0 : seen.length);
+            for (double[] centroid : centroids) {
+                for (double value : centroid) {
+                    reserve(channel, buffer, Double.BYTES);
+                    buffer.putDouble(value);
+                }
+            }
+            if (labels != null) {
+                for (int label : labels) {
+                    reserve(channel, buffer, Integer.BYTES);
+                    buffer.putInt(label);
+                }
+            }
+            if (seen != null) {
+                for (long count : seen) {
+                    reserve(channel, buffer, Long.BYTES);
+                    buffer.putLong(count);
+                }
+            }
+            ChannelIO.drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            ChannelIO.fill(channel, buffer, HEADER_BYTES);
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("Not a checkpoint file: " + path);
+            }
+            int k = buffer.getInt();
+            int dimensions = buffer.getInt();
+            int iteration = buffer.getInt();
+            int labelCount = buffer.getInt();
+            int seenCount = 0;
+            if (version >= 2) {
+                ChannelIO.fill(channel, buffer, Integer.BYTES);
+                seenCount = buffer.getInt();
+            }
+            if (k < 1 || dimensions < 1 || iteration < 0 || labelCount < 0 || (seenCount != 0 && seenCount != k)) {
+                throw new IOException("Corrupt checkpoint header: " + path + " (k=" + k + ", d=" + dimensions
+                    + ", iteration=" + iteration + ", labels=" + labelCount + ", seen=" + seenCount + ")");
+            }
+            double[][] centroids = new double[k][dimensions];
+            for (double[] centroid : centroids) {
+                for (int d = 0; d < dimensions; d++) {
+                    ChannelIO.fill(channel, buffer, Double.BYTES);
+                    centroid[d] = buffer.getDouble();
+                }
+            }
+            int[] labels = null;
+            if (labelCount > 0) {
+                labels = new int[labelCount];
+                for (int i = 0; i < labelCount; i++) {
+                    ChannelIO.fill(channel, buffer, Integer.BYTES);
+                    labels[i] = buffer.getInt();
+                    if (labels[i] < 0 || labels[i] >= k) {
+                        throw new IOException("Checkpoint " + path + " has label " + labels[i] + " for point " + i
+                            + ", outside [0, " + k + ")");
+                    }
+                }
+            }
+            long[] seen = null;
+            if (seenCount > 0) {
+                seen = new long[seenCount];
+                for (int j = 0; j < seenCount; j++) {
+                    ChannelIO.fill(channel, buffer, Long.BYTES);
+                    seen[j] = buffer.getLong();
+                    if (seen[j] < 0) {
+                        throw new IOException("Checkpoint " + path + " has negative sample count for cluster " + j);
+                    }
+                }
+            }
+            return new Checkpoint(centroids, iteration, labels, seen);
+        } catch (EOFException e) {
+            throw new IOException("Truncated checkpoint: " + path, e);
+        }
+    }
+
+    private static void reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            ChannelIO.drain(channel, buffer);
+        }
+    }
+}
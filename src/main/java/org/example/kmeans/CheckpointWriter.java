@@ -0,0 +1,71 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.example.data.PointStore;
+
+/**
+ * 반복 번호가 interval 의 배수일 때마다 {@link Checkpoint} 를 파일에 덮어쓰는 리스너.
+ * 이어서 실행한 엔진은 반복 번호를 체크포인트의 반복 수부터 매기므로 간격도 전체 반복 기준이다.
+ * 미니 배치는 클러스터별 표본 수도 함께 저장한다.
+ * 레이블은 points 가 주어졌을 때만 저장하며, 그 시점에 points 에 기록된 값을 쓴다.
+ * 멀티 프로세스 엔진은 레이블을 워커가 보관하다가 마지막에 한 번 받아오므로, 실행 중 체크포인트의 레이블은 이전 값이다.
+ */
+public class CheckpointWriter implements IterationListener {
+
+    private final Path path;
+    private final int interval;
+    private final PointStore points;
+    private double[][] lastCentroids;
+    private long[] lastSeen;
+    private int lastIteration;
+    private int writtenIteration = -1;
+
+    /**
+     * @param points 레이블을 저장하지 않으면 null
+     */
+    public CheckpointWriter(Path path, int interval, PointStore points) {
+        this.path = path;
+        this.interval = Math.max(1, interval);
+        this.points = points;
+    }
+
+    @Override
+    public void onIteration(IterationMetrics metrics) {
+        double[][] centroids = metrics.getCentroids();
+        if (centroids == null) {
+            return;
+        }
+        // 일부 엔진은 중심점을 제자리에서 갱신하므로 복사해 둔다.
+        lastCentroids = new double[centroids.length][];
+        for (int j = 0; j < centroids.length; j++) {
+            lastCentroids[j] = centroids[j].clone();
+        }
+        lastSeen = metrics.getSeen() == null ? null : metrics.getSeen().clone();
+        lastIteration = metrics.getIteration();
+        if (lastIteration % interval == 0) {
+            try {
+                write();
+            } catch (IOException e) {
+                // 체크포인트를 못 써도 실행은 계속한다.
+                System.err.println("Checkpoint failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 실행이 끝난 뒤 마지막 반복의 체크포인트를 쓴다. 이미 쓴 반복이라도 레이블을 저장한다면 최종 레이블로 다시 쓴다.
+     */
+    public void finish() throws IOException {
+        if (lastCentroids != null && (points != null || writtenIteration != lastIteration)) {
+            write();
+        }
+    }
+
+    private void write() throws IOException {
+        int[] labels = points == null ? null : Checkpoint.labelsOf(points);
+        new Checkpoint(lastCentroids, lastIteration, labels, lastSeen).write(path);
+        writtenIteration = lastIteration;
+    }
+}
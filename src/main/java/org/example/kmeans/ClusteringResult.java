@@ -0,0 +1,167 @@
+package org.example.kmeans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.example.data.PointStore;
+
+/**
+ * 엔진 실행 결과. 최종 중심점, 클러스터 크기, 반복 수를 담고 레이블은 복사하지 않고 포인트 저장소에서 바로 읽는다.
+ * 클러스터별 inertia(중심점까지 거리 제곱합)와 radius(가장 먼 포인트까지의 거리)는 처음 요청할 때
+ * 포인트를 한 번 훑어 계산한다. {@link #toString()} 은 예전 run 이 반환하던 문자열과 같다.
+ * 포인트를 보관하지 않는 streaming 의 결과는 레이블이 없고, 크기와 통계는 엔진이 배정하면서 모은 값이다.
+ */
+public final class ClusteringResult {
+
+    private static final int STATS_CHUNK = 1 << 16;
+
+    private final PointStore points;
+    private final double[][] centroids;
+    private final int[] sizes;
+    private final int iterations;
+    private double[] inertia;
+    private double[] radius;
+
+    ClusteringResult(PointStore points, double[][] centroids, int iterations) {
+        this.points = points;
+        this.centroids = new double[centroids.length][];
+        for (int j = 0; j < centroids.length; j++) {
+            this.centroids[j] = centroids[j].clone();
+        }
+        this.iterations = iterations;
+        this.sizes = new int[centroids.length];
+        int size = points.size();
+        for (int p = 0; p < size; p++) {
+            sizes[points.label(p)]++;
+        }
+    }
+
+    ClusteringResult(double[][] centroids, int[] sizes, double[] inertia, double[] radius, int iterations) {
+        this.points = null;
+        this.centroids = new double[centroids.length][];
+        for (int j = 0; j < centroids.length; j++) {
+            this.centroids[j] = centroids[j].clone();
+        }
+        this.sizes = sizes.clone();
+        this.inertia = inertia.clone();
+        this.radius = radius.clone();
+        this.iterations = iterations;
+    }
+
+    public int getClusters() {
+        return centroids.length;
+    }
+
+    public int getDimensions() {
+        return centroids[0].length;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return 포인트를 보관하지 않는 결과라면 null
+     */
+    public PointStore getPoints() {
+        return points;
+    }
+
+    public int getLabel(int index) {
+        if (points == null) {
+            throw new IllegalStateException("Result has no point labels");
+        }
+        return points.label(index);
+    }
+
+    public double[] getCentroid(int cluster) {
+        return centroids[cluster].clone();
+    }
+
+    public int getSize(int cluster) {
+        return sizes[cluster];
+    }
+
+    public double getInertia(int cluster) {
+        computeStats(Runtime.getRuntime().availableProcessors());
+        return inertia[cluster];
+    }
+
+    public double getRadius(int cluster) {
+        computeStats(Runtime.getRuntime().availableProcessors());
+        return radius[cluster];
+    }
+
+    /**
+     * 클러스터별 inertia 와 radius 를 threads 개의 스레드로 나누어 계산한다. 이미 계산했다면 아무것도 하지 않는다.
+     */
+    public synchronized void computeStats(int threads) {
+        if (inertia != null) {
+            return;
+        }
+        int k = centroids.length;
+        int size = points.size();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<double[]>> partials = new ArrayList<>();
+            for (int start = 0; start < size; start += STATS_CHUNK) {
+                int from = start;
+                int to = Math.min(size, start + STATS_CHUNK);
+                partials.add(executor.submit(() -> stats(from, to)));
+            }
+            double[] totalInertia = new double[k];
+            double[] maxSquared = new double[k];
+            for (Future<double[]> partial : partials) {
+                double[] values = partial.get();
+                for (int c = 0; c < k; c++) {
+                    totalInertia[c] += values[c];
+                    maxSquared[c] = Math.max(maxSquared[c], values[k + c]);
+                }
+            }
+            double[] radii = new double[k];
+            for (int c = 0; c < k; c++) {
+                radii[c] = Math.sqrt(maxSquared[c]);
+            }
+            radius = radii;
+            inertia = totalInertia;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing cluster stats", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return [0, k) 는 거리 제곱합, [k, 2k) 는 최대 거리 제곱
+     */
+    private double[] stats(int start, int end) {
+        int k = centroids.length;
+        double[] values = new double[k * 2];
+        double[] point = new double[centroids[0].length];
+        for (int i = start; i < end; i++) {
+            points.copyPoint(i, point);
+            int cluster = points.label(i);
+            double distance = Distances.squared(point, centroids[cluster]);
+            values[cluster] += distance;
+            values[k + cluster] = Math.max(values[k + cluster], distance);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < sizes.length; i++) {
+            result.append("Cluster ").append(i + 1).append(": ").append(sizes[i]).append("\n");
+        }
+        result.append("Iterations: ").append(iterations).append("\n");
+        return result.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.kmeans;
+
+/**
+ * 반복 조기 종료 조건.
+ * 모든 중심점의 이동 거리가 tolerance 이하이거나, 한 반복에서 레이블이 바뀐 포인트 수가
+ * changeThreshold 이하이면 수렴한 것으로 본다. 음수 값은 해당 조건을 끄며,
+ * 최대 반복 횟수는 각 엔진의 run 인자로 제한된다.
+ */
+public class Convergence {
+
+    private final double tolerance;
+    private final long changeThreshold;
+
+    public Convergence(double tolerance, long changeThreshold) {
+        this.tolerance = tolerance;
+        this.changeThreshold = changeThreshold;
+    }
+
+    public static Convergence none() {
+        return new Convergence(-1, -1);
+    }
+
+    /**
+     * @param completedIterations 지금까지 끝난 반복 수
+     * @param changed 방금 끝난 반복에서 레이블이 바뀐 포인트 수
+     */
+    boolean isConverged(int completedIterations, double[][] previous, double[][] current, long changed) {
+        // 첫 반복의 레이블 변화량은 초기값 0 과의 비교라 의미가 없다.
+        if (changeThreshold >= 0 && completedIterations > 1 && changed <= changeThreshold) {
+            return true;
+        }
+        return tolerance >= 0 && maxShift(previous, current) <= tolerance;
+    }
+
+    private static double maxShift(double[][] previous, double[][] current) {
+        double max = 0;
+        for (int i = 0; i < current.length; i++) {
+            max = Math.max(max, Distances.euclidean(current[i], previous[i]));
+        }
+        return max;
+    }
+}
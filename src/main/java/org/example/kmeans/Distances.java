@@ -0,0 +1,51 @@
+package org.example.kmeans;
+
+/**
+ * 임의 차원 좌표 사이의 거리. 네 개의 누적 변수로 펼쳐 의존 사슬을 끊어 고차원에서도 파이프라인을 채운다.
+ */
+final class Distances {
+
+    private Distances() {
+    }
+
+    static double squared(double[] a, double[] b) {
+        int dimensions = a.length;
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int d = 0;
+        for (; d + 3 < dimensions; d += 4) {
+            double d0 = a[d] - b[d];
+            double d1 = a[d + 1] - b[d + 1];
+            double d2 = a[d + 2] - b[d + 2];
+            double d3 = a[d + 3] - b[d + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; d < dimensions; d++) {
+            double diff = a[d] - b[d];
+            s0 += diff * diff;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double euclidean(double[] a, double[] b) {
+        return Math.sqrt(squared(a, b));
+    }
+
+    static int closest(double[] point, double[][] centroids) {
+        int closestCluster = 0;
+        double minDistance = Double.MAX_VALUE;
+        for (int j = 0; j < centroids.length; j++) {
+            double distance = squared(point, centroids[j]);
+            if (distance < minDistance) {
+                closestCluster = j;
+                minDistance = distance;
+            }
+        }
+        return closestCluster;
+    }
+}
@@ -0,0 +1,460 @@
+package org.example.kmeans;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.PointStore;
+
+/**
+ * 드라이버와 ProcessTask 사이의 바이너리 프레임 프로토콜.
+ * 각 프레임은 type(int) count(int) 헤더 뒤에 little-endian 기본형 값이 이어진다.
+ *
+ * <pre>
+ * HELLO     count=id  (워커 → 드라이버, 연결 직후 자기 번호를 알림)
+ * JOB       count=k  algorithmLength(int) algorithm(UTF-8)  (새 작업 시작, 뒤이어 POINTS)
+ * PING      count=0  (상태 확인, 워커는 PING 으로 응답)
+ * POINTS    count=n  d(int) column[0][n] ... column[d-1][n]
+ * CENTROIDS count=k  d(int) coordinates(double)[k*d]
+ * PARTIALS  count=k  changed(long) sums(double)[k*d] counts(int)[k]
+ * LABELS    count=0  (드라이버 → 워커, 레이블 요청)
+ * LABELS    count=n  label[n]  (워커 → 드라이버)
+ * RESTORE   count=n  label[n]  (드라이버 → 워커, POINTS 뒤 이어서 실행할 때의 시작 레이블)
+ * </pre>
+ * 하나의 direct 버퍼를 재사용하며 큰 프레임은 버퍼 단위로 나누어 주고받는다.
+ * 드라이버 쪽 채널은 {@link #configureNonBlocking()} 으로 논블로킹으로 바꾸어 선택기에 등록한다.
+ * 워커의 응답은 {@link #receive(long)} 로 선택기가 알릴 때마다 읽을 수 있는 만큼만 모으고, 다 모인 뒤 read* 로 푼다.
+ * 그 밖의 읽기/쓰기는 프레임이 끝날 때까지 채널 전용 선택기에서 기다리며, {@link #setTimeout(long)} 동안
+ * 진행이 없으면 SocketTimeoutException 을 던진다.
+ * 소켓 쓰기/읽기에 걸린 시간과 바이트 수를 누적하며 {@link #resetTraffic()} 으로 초기화한다.
+ */
+final class FrameChannel implements Closeable {
+
+    static final int POINTS = 1;
+    static final int CENTROIDS = 2;
+    static final int LABELS = 3;
+    static final int PARTIALS = 4;
+    static final int JOB = 5;
+    static final int PING = 6;
+    static final int HELLO = 7;
+    static final int RESTORE = 8;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final SocketChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    // read* 가 읽는 버퍼. receive 로 다 모은 프레임을 푸는 동안에는 그 프레임이다.
+    private ByteBuffer input = readBuffer;
+    // receive 로 모으는 중인 프레임
+    private ByteBuffer frame;
+    private long timeoutMillis;
+
+    long bytesSent;
+    long bytesReceived;
+    long sendNanos;
+    long receiveNanos;
+
+    private Selector waitSelector;
+    private SelectionKey waitKey;
+
+    FrameChannel(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(true);
+        channel.socket().setTcpNoDelay(true);
+        readBuffer.flip();
+    }
+
+    void configureNonBlocking() throws IOException {
+        channel.configureBlocking(false);
+    }
+
+    /**
+     * 논블로킹 채널에서 읽기/쓰기가 진행 없이 기다릴 최대 시간. 0 이면 제한하지 않는다.
+     */
+    void setTimeout(long millis) {
+        this.timeoutMillis = millis;
+    }
+
+    /**
+     * PARTIALS 프레임 전체 크기
+     */
+    static long partialsBytes(int k, int dimensions) {
+        return HEADER_BYTES + Long.BYTES + (long)k * dimensions * Double.BYTES + (long)k * Integer.BYTES;
+    }
+
+    /**
+     * count 개의 레이블을 담은 LABELS 프레임 전체 크기
+     */
+    static long labelsBytes(int count) {
+        return HEADER_BYTES + (long)count * Integer.BYTES;
+    }
+
+    /**
+     * 논블로킹 채널에서 크기가 frameBytes 인 프레임을 지금 읽을 수 있는 만큼만 모으고 기다리지 않는다.
+     * 프레임이 다 모이면 true 를 반환하며, 이후 read* 는 소켓 대신 모은 프레임에서 읽는다.
+     * 모으는 중인 프레임은 채널마다 따로 두므로 선택기 하나로 여러 워커의 응답을 겹쳐 받을 수 있다.
+     */
+    boolean receive(long frameBytes) throws IOException {
+        if (frame == null) {
+            if (frameBytes > Integer.MAX_VALUE) {
+                throw new IOException("Frame of " + frameBytes + " bytes is too large");
+            }
+            frame = ByteBuffer.allocate((int)frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+            // 읽기 버퍼에 이미 들어온 바이트부터 옮긴다.
+            int carried = Math.min(readBuffer.remaining(), frame.remaining());
+            frame.put(frame.position(), readBuffer, readBuffer.position(), carried);
+            frame.position(carried);
+            readBuffer.position(readBuffer.position() + carried);
+        }
+        long start = System.nanoTime();
+        try {
+            while (frame.hasRemaining()) {
+                int read = channel.read(frame);
+                if (read < 0) {
+                    frame = null;
+                    throw new EOFException();
+                }
+                if (read == 0) {
+                    return false;
+                }
+                bytesReceived += read;
+            }
+        } finally {
+            receiveNanos += System.nanoTime() - start;
+        }
+        input = frame.flip();
+        frame = null;
+        return true;
+    }
+
+    /**
+     * 논블로킹 채널을 selector 에 등록한다. 관심 연산은 호출하는 쪽에서 정한다.
+     */
+    SelectionKey register(Selector selector, Object attachment) throws IOException {
+        return channel.register(selector, 0, attachment);
+    }
+
+    void writeHello(int id) throws IOException {
+        writeHeader(HELLO, id);
+        flush();
+    }
+
+    void writeJob(int k, String algorithm) throws IOException {
+        byte[] name = algorithm.getBytes(StandardCharsets.UTF_8);
+        writeHeader(JOB, k);
+        reserve(Integer.BYTES + name.length);
+        writeBuffer.putInt(name.length).put(name);
+        flush();
+    }
+
+    void writePing() throws IOException {
+        writeHeader(PING, 0);
+        flush();
+    }
+
+    void writePoints(PointStore points, int start, int end) throws IOException {
+        int dimensions = points.dimensions();
+        writeHeader(POINTS, end - start);
+        reserve(Integer.BYTES);
+        writeBuffer.putInt(dimensions);
+        for (int d = 0; d < dimensions; d++) {
+            for (int i = start; i < end; i++) {
+                reserve(Double.BYTES);
+                writeBuffer.putDouble(points.coord(i, d));
+            }
+        }
+        flush();
+    }
+
+    void writeCentroids(double[][] centroids) throws IOException {
+        writeHeader(CENTROIDS, centroids.length);
+        reserve(Integer.BYTES);
+        writeBuffer.putInt(centroids[0].length);
+        for (double[] centroid : centroids) {
+            for (double value : centroid) {
+                reserve(Double.BYTES);
+                writeBuffer.putDouble(value);
+            }
+        }
+        flush();
+    }
+
+    void writePartials(double[] sums, int[] counts, long changed) throws IOException {
+        int k = counts.length;
+        writeHeader(PARTIALS, k);
+        reserve(Long.BYTES);
+        writeBuffer.putLong(changed);
+        for (int j = 0; j < sums.length; j++) {
+            reserve(Double.BYTES);
+            writeBuffer.putDouble(sums[j]);
+        }
+        for (int j = 0; j < k; j++) {
+            reserve(Integer.BYTES);
+            writeBuffer.putInt(counts[j]);
+        }
+        flush();
+    }
+
+    void requestLabels() throws IOException {
+        writeHeader(LABELS, 0);
+        flush();
+    }
+
+    void writeLabels(PointStore points) throws IOException {
+        writeLabels(LABELS, points, 0, points.size());
+    }
+
+    /**
+     * points 의 [start, end) 구간 레이블을 워커의 시작 레이블로 보낸다.
+     */
+    void writeRestore(PointStore points, int start, int end) throws IOException {
+        writeLabels(RESTORE, points, start, end);
+    }
+
+    private void writeLabels(int type, PointStore points, int start, int end) throws IOException {
+        writeHeader(type, end - start);
+        for (int i = start; i < end; i++) {
+            reserve(Integer.BYTES);
+            writeBuffer.putInt(points.label(i));
+        }
+        flush();
+    }
+
+    /**
+     * 다음 프레임의 type 을 읽는다. 상대가 연결을 정상적으로 닫았다면 -1 을 반환한다.
+     */
+    int readType() throws IOException {
+        if (!fill(Integer.BYTES, true)) {
+            return -1;
+        }
+        return input.getInt();
+    }
+
+    /**
+     * JOB 프레임의 본문을 읽는다.
+     *
+     * @return k 와 알고리즘 이름
+     */
+    Job readJob() throws IOException {
+        int k = readCount();
+        fill(Integer.BYTES, false);
+        int length = input.getInt();
+        byte[] name = new byte[length];
+        fill(length, false);
+        input.get(name);
+        return new Job(k, new String(name, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 차원별 열 배열 columns[d][i]
+     */
+    double[][] readPoints() throws IOException {
+        int count = readCount();
+        int dimensions = readCount();
+        double[][] columns = new double[dimensions][count];
+        for (double[] column : columns) {
+            readDoubles(column);
+        }
+        return columns;
+    }
+
+    double[][] readCentroids() throws IOException {
+        int count = readCount();
+        int dimensions = readCount();
+        double[][] centroids = new double[count][dimensions];
+        for (double[] centroid : centroids) {
+            readDoubles(centroid);
+        }
+        return centroids;
+    }
+
+    /**
+     * PARTIALS 프레임의 본문을 sums(k * d), counts 에 채우고 바뀐 레이블 수를 반환한다.
+     */
+    long readPartials(double[] sums, int[] counts) throws IOException {
+        int count = readCount();
+        if (count != counts.length) {
+            throw new IOException("Expected " + counts.length + " clusters but got " + count);
+        }
+        fill(Long.BYTES, false);
+        long changed = input.getLong();
+        readDoubles(sums);
+        for (int j = 0; j < count; j++) {
+            fill(Integer.BYTES, false);
+            counts[j] = input.getInt();
+        }
+        return changed;
+    }
+
+    /**
+     * LABELS 또는 RESTORE 프레임의 본문을 points 의 [start, end) 구간 레이블로 기록한다.
+     */
+    void readLabels(PointStore points, int start, int end) throws IOException {
+        int count = readCount();
+        if (count != end - start) {
+            throw new IOException("Expected " + (end - start) + " labels but got " + count);
+        }
+        for (int i = start; i < end; i++) {
+            fill(Integer.BYTES, false);
+            points.setLabel(i, input.getInt());
+        }
+    }
+
+    /**
+     * HELLO 프레임의 워커 번호를 읽는다.
+     */
+    int readHello() throws IOException {
+        return readCount();
+    }
+
+    /**
+     * 본문이 없는 요청 프레임(LABELS 요청, PING)의 count 를 읽어 버린다.
+     */
+    void readRequest() throws IOException {
+        readCount();
+    }
+
+    void expect(int type) throws IOException {
+        int actual = readType();
+        if (actual != type) {
+            throw new IOException("Expected frame " + type + " but got " + actual);
+        }
+    }
+
+    void resetTraffic() {
+        bytesSent = 0;
+        bytesReceived = 0;
+        sendNanos = 0;
+        receiveNanos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (waitSelector != null) {
+            waitSelector.close();
+        }
+        channel.close();
+    }
+
+    static final class Job {
+        final int k;
+        final String algorithm;
+
+        Job(int k, String algorithm) {
+            this.k = k;
+            this.algorithm = algorithm;
+        }
+    }
+
+    private int readCount() throws IOException {
+        fill(Integer.BYTES, false);
+        return input.getInt();
+    }
+
+    private void readDoubles(double[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            fill(Double.BYTES, false);
+            int take = Math.min(input.remaining() / Double.BYTES, values.length - i);
+            input.asDoubleBuffer().get(values, i, take);
+            input.position(input.position() + take * Double.BYTES);
+            i += take;
+        }
+    }
+
+    private void writeHeader(int type, int count) throws IOException {
+        reserve(HEADER_BYTES);
+        writeBuffer.putInt(type).putInt(count);
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (writeBuffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        long start = System.nanoTime();
+        writeBuffer.flip();
+        bytesSent += writeBuffer.remaining();
+        while (writeBuffer.hasRemaining()) {
+            if (channel.write(writeBuffer) == 0) {
+                await(SelectionKey.OP_WRITE);
+            }
+        }
+        writeBuffer.clear();
+        sendNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * 읽기 버퍼에 최소 bytes 만큼 남아 있도록 채운다. receive 로 모은 프레임을 다 읽었다면 소켓으로 돌아간다.
+     */
+    private boolean fill(int bytes, boolean eofAllowed) throws IOException {
+        if (input.remaining() >= bytes) {
+            return true;
+        }
+        if (input != readBuffer) {
+            if (input.hasRemaining()) {
+                throw new EOFException("Truncated frame: " + input.remaining() + " bytes left, needed " + bytes);
+            }
+            input = readBuffer;
+            if (readBuffer.remaining() >= bytes) {
+                return true;
+            }
+        }
+        long start = System.nanoTime();
+        readBuffer.compact();
+        try {
+            while (readBuffer.position() < bytes) {
+                int read = channel.read(readBuffer);
+                if (read < 0) {
+                    if (eofAllowed && readBuffer.position() == 0) {
+                        return false;
+                    }
+                    throw new EOFException();
+                }
+                if (read == 0) {
+                    await(SelectionKey.OP_READ);
+                }
+                bytesReceived += read;
+            }
+        } finally {
+            readBuffer.flip();
+            receiveNanos += System.nanoTime() - start;
+        }
+        return true;
+    }
+
+    /**
+     * 논블로킹 채널이 operation 을 할 수 있을 때까지 전용 선택기에서 기다린다.
+     * 제한 시간 안에 준비되지 않으면 SocketTimeoutException 을 던진다.
+     */
+    private void await(int operation) throws IOException {
+        if (waitSelector == null) {
+            waitSelector = Selector.open();
+            waitKey = channel.register(waitSelector, 0);
+        }
+        waitKey.interestOps(operation);
+        if (timeoutMillis <= 0) {
+            waitSelector.select();
+        } else {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (waitSelector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))) == 0) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new SocketTimeoutException("No progress within " + timeoutMillis + "ms");
+                }
+            }
+        }
+        waitSelector.selectedKeys().clear();
+    }
+}
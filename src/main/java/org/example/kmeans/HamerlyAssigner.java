@@ -0,0 +1,131 @@
+package org.example.kmeans;
+
+import java.util.Arrays;
+
+import org.example.data.PointStore;
+
+/**
+ * 삼각 부등식을 이용한 Hamerly 가속 할당.
+ * 포인트마다 할당된 중심점까지의 상한(upper)과 두 번째로 가까운 중심점까지의 하한(lower)을 유지하고,
+ * 중심점 이동량만큼 경계를 느슨하게 갱신한다. 상한이 max(하한, 가장 가까운 다른 중심점까지 거리의 절반)
+ * 이하라면 할당이 바뀔 수 없으므로 거리 계산을 건너뛴다.
+ */
+class HamerlyAssigner implements Assigner {
+
+    private final PointStore points;
+    private final int k;
+    private final int dimensions;
+    private final double[] upper;
+    private final double[] lower;
+
+    private double[][] centroids;
+    private double[][] previousCentroids;
+    private final double[] moved;
+    private final double[] halfNearest;
+    private double maxMoved;
+    private double secondMaxMoved;
+    private int maxMovedCluster;
+
+    HamerlyAssigner(PointStore points, int k) {
+        this.points = points;
+        this.k = k;
+        this.dimensions = points.dimensions();
+        this.upper = new double[points.size()];
+        this.lower = new double[points.size()];
+        this.moved = new double[k];
+        this.halfNearest = new double[k];
+    }
+
+    @Override
+    public void prepare(double[][] centroids) {
+        this.centroids = centroids;
+
+        for (int j = 0; j < k; j++) {
+            double nearest = Double.MAX_VALUE;
+            for (int l = 0; l < k; l++) {
+                if (l != j) {
+                    nearest = Math.min(nearest, Distances.euclidean(centroids[j], centroids[l]));
+                }
+            }
+            halfNearest[j] = nearest / 2;
+        }
+
+        maxMoved = 0;
+        secondMaxMoved = 0;
+        maxMovedCluster = -1;
+        if (previousCentroids != null) {
+            for (int j = 0; j < k; j++) {
+                moved[j] = Distances.euclidean(previousCentroids[j], centroids[j]);
+                if (moved[j] > maxMoved) {
+                    secondMaxMoved = maxMoved;
+                    maxMoved = moved[j];
+                    maxMovedCluster = j;
+                } else if (moved[j] > secondMaxMoved) {
+                    secondMaxMoved = moved[j];
+                }
+            }
+        }
+
+        boolean firstPass = previousCentroids == null;
+        previousCentroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            previousCentroids[j] = centroids[j].clone();
+        }
+        if (firstPass) {
+            // 첫 반복에서는 경계가 없으므로 모든 포인트를 전체 탐색하도록 만든다.
+            Arrays.fill(upper, Double.MAX_VALUE);
+            Arrays.fill(lower, 0);
+        }
+    }
+
+    @Override
+    public int assign(int start, int end, double[] sums, int[] counts) {
+        double[] point = new double[dimensions];
+        int changed = 0;
+        for (int i = start; i < end; i++) {
+            points.copyPoint(i, point);
+            int cluster = points.label(i);
+
+            if (upper[i] != Double.MAX_VALUE) {
+                upper[i] += moved[cluster];
+                lower[i] -= cluster == maxMovedCluster ? secondMaxMoved : maxMoved;
+            }
+
+            double bound = Math.max(halfNearest[cluster], lower[i]);
+            if (upper[i] > bound) {
+                upper[i] = Distances.euclidean(point, centroids[cluster]);
+                if (upper[i] > bound) {
+                    int closestCluster = scan(i, point);
+                    if (closestCluster != cluster) {
+                        points.setLabel(i, closestCluster);
+                        cluster = closestCluster;
+                        changed++;
+                    }
+                }
+            }
+
+            Centroids.accumulate(sums, cluster, point);
+            counts[cluster]++;
+        }
+        return changed;
+    }
+
+    private int scan(int i, double[] point) {
+        int closestCluster = 0;
+        double minDistance = Double.MAX_VALUE;
+        double secondDistance = Double.MAX_VALUE;
+        for (int j = 0; j < k; j++) {
+            double distance = Distances.euclidean(point, centroids[j]);
+            if (distance < minDistance) {
+                secondDistance = minDistance;
+                minDistance = distance;
+                closestCluster = j;
+            } else if (distance < secondDistance) {
+                secondDistance = distance;
+            }
+        }
+        upper[i] = minDistance;
+        lower[i] = secondDistance;
+        return closestCluster;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.kmeans;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.data.PointStore;
+
+/**
+ * 엔진마다 하나씩 두는 반복 측정 도우미. 리스너가 없으면 시간 외의 값은 계산하지 않는다.
+ * inertia 는 포인트를 다시 훑지 않고 부분합에서 바로 구한다. 원점 기준의 sum|x|^2 - sum_c |S_c|^2 / n_c 는
+ * 데이터가 원점에서 멀면 큰 두 수의 뺄셈에서 유효 숫자를 잃으므로, 데이터 평균 m 을 기준으로 옮긴
+ * sum|x - m|^2 - sum_c |S_c - n_c m|^2 / n_c 를 쓴다. m 과 sum|x - m|^2 는 데이터에 대해 한 번만 계산한다.
+ */
+final class Instrumentation {
+
+    private final String engine;
+    private final PointStore points;
+    private final List<IterationListener> listeners = new ArrayList<>();
+    private double[] mean;
+    private double centeredNorm;
+    private long allocatedAtStart;
+
+    Instrumentation(String engine, PointStore points) {
+        this.engine = engine;
+        this.points = points;
+    }
+
+    void addListener(IterationListener listener) {
+        listeners.add(listener);
+    }
+
+    IterationMetrics begin(int iteration) {
+        if (!listeners.isEmpty()) {
+            allocatedAtStart = allocatedBytes();
+        }
+        return new IterationMetrics(engine, iteration);
+    }
+
+    /**
+     * @param sums 이번 반복에서 병합한 클러스터별 합계. null 이면 inertia 를 계산하지 않는다.
+     * @param centroids 이번 반복이 끝난 뒤의 중심점
+     */
+    void finish(IterationMetrics metrics, double[] sums, int[] counts, double[][] centroids) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (sums != null) {
+            metrics.inertia = inertia(sums, counts);
+        }
+        metrics.allocatedBytes = Math.max(0, allocatedBytes() - allocatedAtStart);
+        metrics.centroids = centroids;
+        for (IterationListener listener : listeners) {
+            listener.onIteration(metrics);
+        }
+        metrics.centroids = null;
+        metrics.seen = null;
+    }
+
+    private double inertia(double[] sums, int[] counts) {
+        if (mean == null) {
+            center();
+        }
+        int dimensions = sums.length / counts.length;
+        double explained = 0;
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                double norm = 0;
+                for (int d = 0; d < dimensions; d++) {
+                    double sum = sums[c * dimensions + d] - counts[c] * mean[d];
+                    norm += sum * sum;
+                }
+                explained += norm / counts[c];
+            }
+        }
+        return centeredNorm - explained;
+    }
+
+    /**
+     * 데이터 평균과 평균까지의 거리 제곱합을 두 번에 나누어 계산한다.
+     */
+    private void center() {
+        int size = points.size();
+        int dimensions = points.dimensions();
+        double[] center = new double[dimensions];
+        double total = 0;
+        for (int d = 0; d < dimensions; d++) {
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += points.coord(i, d);
+            }
+            center[d] = size == 0 ? 0 : sum / size;
+            for (int i = 0; i < size; i++) {
+                double diff = points.coord(i, d) - center[d];
+                total += diff * diff;
+            }
+        }
+        centeredNorm = total;
+        mean = center;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean)threads)
+            .getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+}
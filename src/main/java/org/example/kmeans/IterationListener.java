@@ -0,0 +1,10 @@
+package org.example.kmeans;
+
+/**
+ * 엔진이 반복 하나를 끝낼 때마다 호출되는 리스너. 엔진의 드라이버 스레드에서 호출된다.
+ */
+@FunctionalInterface
+public interface IterationListener {
+
+    void onIteration(IterationMetrics metrics);
+}
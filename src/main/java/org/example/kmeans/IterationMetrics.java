@@ -0,0 +1,97 @@
+package org.example.kmeans;
+
+/**
+ * 반복 하나의 측정값. 시간은 나노초 단위이며 해당 엔진에 없는 단계는 0 이다.
+ * <ul>
+ *   <li>assign: 할당과 부분합 계산을 기다린 벽시계 시간 (멀티 프로세스는 송수신 포함)</li>
+ *   <li>reduce: 부분합 병합과 새 중심점 계산</li>
+ *   <li>send/receive/serialize: 멀티 프로세스에서 워커별 값을 더한 시간.
+ *       receive 는 워커의 계산을 기다리는 시간을 포함한다.</li>
+ *   <li>inertia: 이번 반복의 레이블과 새 중심점 기준 거리 제곱합. 알 수 없으면 NaN</li>
+ *   <li>changed: 레이블이 바뀐 포인트 수. 알 수 없으면 -1</li>
+ *   <li>allocatedBytes: 이 JVM 의 모든 스레드가 반복 동안 할당한 바이트 (워커 프로세스는 제외)</li>
+ *   <li>centroids: 이번 반복이 끝난 뒤의 중심점. 리스너 호출 중에만 유효하다</li>
+ *   <li>seen: 미니 배치에서 클러스터별로 지금까지 배정된 표본 수. 다른 엔진은 null 이며 리스너 호출 중에만 유효하다</li>
+ * </ul>
+ */
+public final class IterationMetrics {
+
+    final String engine;
+    final int iteration;
+    long assignNanos;
+    long reduceNanos;
+    long sendNanos;
+    long receiveNanos;
+    long serializeNanos;
+    double inertia = Double.NaN;
+    long changed = -1;
+    long bytesSent;
+    long bytesReceived;
+    long allocatedBytes;
+    double[][] centroids;
+    long[] seen;
+
+    IterationMetrics(String engine, int iteration) {
+        this.engine = engine;
+        this.iteration = iteration;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public long getAssignNanos() {
+        return assignNanos;
+    }
+
+    public long getReduceNanos() {
+        return reduceNanos;
+    }
+
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    public long getReceiveNanos() {
+        return receiveNanos;
+    }
+
+    public long getSerializeNanos() {
+        return serializeNanos;
+    }
+
+    public double getInertia() {
+        return inertia;
+    }
+
+    public long getChanged() {
+        return changed;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * 기록해 두는 리스너가 반복마다 k * d 를 붙잡지 않도록 호출이 끝나면 null 이 된다. 필요하면 복사해야 한다.
+     */
+    public double[][] getCentroids() {
+        return centroids;
+    }
+
+    public long[] getSeen() {
+        return seen;
+    }
+}
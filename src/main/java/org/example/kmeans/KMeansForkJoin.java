@@ -0,0 +1,154 @@
+package org.example.kmeans;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.example.data.PointStore;
+
+/**
+ * ForkJoinPool 기반 K-means.
+ * 고정된 스레드 수만큼 구간을 미리 나누는 대신 RecursiveTask 가 구간을 반으로 쪼개 가며 작업을 만들고,
+ * 한가한 워커가 다른 워커의 큐에서 작업을 훔쳐 간다. 구간은 최소 크기에 도달하거나 이미 충분한 여분 작업이
+ * 큐에 쌓여 있으면 더 이상 쪼개지 않는다. 부분합은 분할 트리를 따라 올라가며 합쳐지고, 풀은 모든 반복에서 재사용된다.
+ */
+public class KMeansForkJoin {
+
+    private static final int MIN_CHUNK = 4096;
+    private static final int SURPLUS_TASKS = 2;
+
+    private PointStore dataPoints;
+    private final int k;
+    private final int dimensions;
+    private double[][] centroids;
+    private final Assigner assigner;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+
+    public KMeansForkJoin(PointStore dataPoints, int k) {
+        this(dataPoints, k, "lloyd");
+    }
+
+    public KMeansForkJoin(PointStore dataPoints, int k, String algorithm) {
+        this.dataPoints = dataPoints;
+        this.k = k;
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("forkJoin", dataPoints);
+        this.centroids = Centroids.initial(dataPoints, k);
+        this.assigner = Assigner.create(algorithm, dataPoints, k);
+    }
+
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
+        }
+    }
+
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
+    }
+
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
+
+    public int getIterations() {
+        return iterationsRun;
+    }
+
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
+    }
+
+    /**
+     * @param threads ForkJoinPool 의 병렬도
+     * @param iterations 최대 반복 횟수
+     */
+    public ClusteringResult run(int threads, int iterations) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int size = dataPoints.size();
+            iterationsRun = startIteration;
+            while (iterationsRun < iterations) {
+                IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+                long assignStart = System.nanoTime();
+                assigner.prepare(centroids);
+                Partial partial = pool.invoke(new AssignTask(0, size));
+                long reduceStart = System.nanoTime();
+                double[][] previous = centroids;
+                centroids = Centroids.fromSums(partial.sums, partial.counts, k, dimensions);
+                metrics.assignNanos = reduceStart - assignStart;
+                metrics.reduceNanos = System.nanoTime() - reduceStart;
+                metrics.changed = partial.changed;
+                instrumentation.finish(metrics, partial.sums, partial.counts, centroids);
+                iterationsRun++;
+                if (convergence.isConverged(iterationsRun, previous, centroids, partial.changed)) {
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
+    }
+
+    private static final class Partial {
+        final double[] sums;
+        final int[] counts;
+        long changed;
+
+        Partial(int k, int dimensions) {
+            this.sums = new double[k * dimensions];
+            this.counts = new int[k];
+        }
+
+        void add(Partial other) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other.sums[i];
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            changed += other.changed;
+        }
+    }
+
+    private final class AssignTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+
+        AssignTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (end - start > MIN_CHUNK && getSurplusQueuedTaskCount() <= SURPLUS_TASKS) {
+                int middle = (start + end) >>> 1;
+                AssignTask left = new AssignTask(start, middle);
+                left.fork();
+                Partial partial = new AssignTask(middle, end).compute();
+                partial.add(left.join());
+                return partial;
+            }
+            Partial partial = new Partial(k, dimensions);
+            partial.changed = assigner.assign(start, end, partial.sums, partial.counts);
+            return partial;
+        }
+    }
+}
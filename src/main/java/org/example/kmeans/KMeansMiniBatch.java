@@ -0,0 +1,215 @@
+package org.example.kmeans;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.example.data.PointStore;
+
+/**
+ * 미니 배치 K-means (Sculley, 2010).
+ * 매 반복마다 전체 포인트 대신 batchSize 개의 표본만 뽑아 가장 가까운 중심점을 찾고,
+ * 클러스터별로 지금까지 배정된 표본 수의 역수를 학습률로 삼아 중심점을 조금씩 옮긴다.
+ * 표본의 할당은 여러 스레드로 나누어 계산할 수 있으며, 모든 반복이 끝난 뒤 전체 포인트를 한 번 레이블링한다.
+ * i 번째 반복의 표본은 시드로 만든 루트 난수 생성기를 i 번째로 split 한 난수열에서 뽑으므로,
+ * 이어서 실행해도 같은 반복에서 같은 표본을 뽑는다.
+ */
+public class KMeansMiniBatch {
+
+    private PointStore dataPoints;
+    private final int k;
+    private final int dimensions;
+    private final int batchSize;
+    private final long seed;
+    private double[][] centroids;
+    private long[] startSeen;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+
+    public KMeansMiniBatch(PointStore dataPoints, int k, int batchSize, long seed) {
+        this.dataPoints = dataPoints;
+        this.k = k;
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("miniBatch", dataPoints);
+        this.batchSize = batchSize;
+        this.seed = seed;
+        this.centroids = Centroids.initial(dataPoints, k);
+    }
+
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
+        }
+    }
+
+    /**
+     * 클러스터별로 지금까지 배정된 표본 수를 지정한다. 이어서 실행할 때 체크포인트의 값을 넘기면
+     * 학습률이 중단된 지점부터 이어진다. 지정하지 않으면 모두 0 에서 시작한다.
+     */
+    public void setSeen(long[] seen) {
+        if (seen.length != k) {
+            throw new IllegalArgumentException("Expected " + k + " seen counts but got " + seen.length);
+        }
+        this.startSeen = seen.clone();
+    }
+
+    /**
+     * 미니 배치에서는 레이블 변화량을 알 수 없으므로 중심점 이동량(tolerance) 조건만 적용된다.
+     */
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
+    }
+
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     * 표본은 반복 번호마다 정해진 난수열에서 뽑으므로 {@link #setSeen(long[])} 와 함께 쓰면 한 번에 실행한 것과 같다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
+
+    public int getIterations() {
+        return iterationsRun;
+    }
+
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
+    }
+
+    /**
+     * 작업 스레드에서 난 예외는 그 단계의 작업이 모두 끝난 뒤 run 에서 다시 던진다.
+     *
+     * @param threads 표본 할당과 마지막 레이블링에 사용할 스레드 수
+     * @param iterations 최대 반복(배치) 횟수
+     */
+    public ClusteringResult run(int threads, int iterations) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return run(executor, threads, iterations);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ClusteringResult run(ExecutorService executor, int threads, int iterations) throws InterruptedException {
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < startIteration; i++) {
+            root.split();
+        }
+        int size = dataPoints.size();
+        int[] batch = new int[batchSize];
+        int[] nearest = new int[batchSize];
+        long[] seen = startSeen == null ? new long[k] : startSeen.clone();
+        double[] point = new double[dimensions];
+
+        iterationsRun = startIteration;
+        while (iterationsRun < iterations) {
+            IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+            long assignStart = System.nanoTime();
+            SplittableRandom random = root.split();
+            for (int b = 0; b < batchSize; b++) {
+                batch[b] = random.nextInt(size);
+            }
+            assignBatch(executor, threads, batch, nearest);
+
+            long reduceStart = System.nanoTime();
+            double[][] previous = new double[k][];
+            for (int j = 0; j < k; j++) {
+                previous[j] = centroids[j].clone();
+            }
+            for (int b = 0; b < batchSize; b++) {
+                int cluster = nearest[b];
+                double eta = 1.0 / ++seen[cluster];
+                double[] centroid = centroids[cluster];
+                dataPoints.copyPoint(batch[b], point);
+                for (int d = 0; d < dimensions; d++) {
+                    centroid[d] += eta * (point[d] - centroid[d]);
+                }
+            }
+            metrics.assignNanos = reduceStart - assignStart;
+            metrics.reduceNanos = System.nanoTime() - reduceStart;
+            // 표본만 보므로 전체 inertia 와 레이블 변화량은 알 수 없다.
+            metrics.seen = seen.clone();
+            instrumentation.finish(metrics, null, null, centroids);
+
+            iterationsRun++;
+            if (convergence.isConverged(iterationsRun, previous, centroids, Long.MAX_VALUE)) {
+                break;
+            }
+        }
+
+        labelAll(executor, threads);
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
+    }
+
+    /**
+     * 표본마다 가장 가까운 중심점을 찾는다. 중심점 갱신 전에 배치 전체를 같은 중심점으로 할당한다.
+     */
+    private void assignBatch(ExecutorService executor, int threads, int[] batch, int[] nearest)
+        throws InterruptedException {
+        parallelFor(executor, threads, batchSize, (start, end) -> {
+            double[] point = new double[dimensions];
+            for (int b = start; b < end; b++) {
+                dataPoints.copyPoint(batch[b], point);
+                nearest[b] = Distances.closest(point, centroids);
+            }
+        });
+    }
+
+    /**
+     * 최종 중심점으로 전체 포인트를 한 번 레이블링한다.
+     */
+    private void labelAll(ExecutorService executor, int threads) throws InterruptedException {
+        Assigner assigner = Assigner.create("lloyd", dataPoints, k);
+        assigner.prepare(centroids);
+        parallelFor(executor, threads, dataPoints.size(),
+            (start, end) -> assigner.assign(start, end, new double[k * dimensions], new int[k]));
+    }
+
+    /**
+     * [0, size) 를 threads 개 구간으로 나누어 실행하고, 모두 끝난 뒤 처음 난 예외를 다시 던진다.
+     */
+    private static void parallelFor(ExecutorService executor, int threads, int size, RangeTask task)
+        throws InterruptedException {
+        int taskSize = size / threads;
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads; t++) {
+            int start = t * taskSize;
+            int end = (t == threads - 1) ? size : (t + 1) * taskSize;
+            executor.submit(() -> {
+                try {
+                    task.run(start, end);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException)t;
+        }
+        if (t instanceof Error) {
+            throw (Error)t;
+        }
+    }
+
+    private interface RangeTask {
+        void run(int start, int end);
+    }
+}
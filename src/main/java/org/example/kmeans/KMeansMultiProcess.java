@@ -1,184 +1,433 @@
 package org.example.kmeans;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.PointStore;
 
 public class KMeansMultiProcess {
 
-    private double[][] dataPoints;
+    private static final long DEFAULT_REPLY_TIMEOUT_MILLIS = 600_000;
+
+    private PointStore dataPoints;
     private final int k;
+    private final int dimensions;
+    private final String algorithm;
     private double[][] centroids;
-    private int[] ports;
-    private ServerSocket[] serverSockets;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+    // 워커에 마지막으로 보낸 중심점. 워커가 보관한 레이블은 이 중심점에 대한 할당이다.
+    private double[][] sent;
+    private WorkerPool workerPool;
+    private long replyTimeoutMillis = DEFAULT_REPLY_TIMEOUT_MILLIS;
 
-    public KMeansMultiProcess(double[][] dataPoints, int k) throws IOException {
+    public KMeansMultiProcess(PointStore dataPoints, int k) throws IOException {
+        this(dataPoints, k, "lloyd");
+    }
+
+    public KMeansMultiProcess(PointStore dataPoints, int k, String algorithm) throws IOException {
         this.dataPoints = dataPoints;
         this.k = k;
-        this.centroids = initCentroids(dataPoints, k);
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("multiProcess", dataPoints);
+        this.algorithm = algorithm;
+        this.centroids = Centroids.initial(dataPoints, k);
     }
 
-    private double[][] initCentroids(double[][] dataPoints, int k) {
-        double[][] centroids = new double[k][2];
-        for (int i = 0; i < k; i++) {
-            centroids[i] = Arrays.copyOf(dataPoints[i], 2);
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
         }
-        return centroids;
     }
 
-    private void initServerSockets(int processes) throws IOException {
-        this.serverSockets = new ServerSocket[processes];
-        this.ports = new int[processes];
-        for (int i = 0; i < processes; i++) {
-            serverSockets[i] = new ServerSocket(0);
-            ports[i] = serverSockets[i].getLocalPort();
-        }
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
+    }
+
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     * 0 보다 크면 첫 작업과 함께 저장소에 복원해 둔 레이블을 워커에 보내 첫 반복의 시작 레이블로 쓴다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
+
+    public int getIterations() {
+        return iterationsRun;
     }
 
-    public String run(int processes, int iterations) throws IOException, InterruptedException {
-        initServerSockets(processes);
-        ExecutorService executor = Executors.newFixedThreadPool(processes);
-        List<ProcessTaskHandler> processHandlers = createProcessHandlers(processes);
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
+    }
 
-        for (int iter = 0; iter < iterations; iter++) {
-            boolean b = iter == 0;
-            CountDownLatch latch = new CountDownLatch(processes);
+    /**
+     * 미리 띄워 둔 워커 풀을 사용한다. 풀은 run 이 끝나도 닫히지 않는다.
+     */
+    public void setWorkerPool(WorkerPool workerPool) {
+        this.workerPool = workerPool;
+    }
 
-            clusterProcess(executor, processHandlers, latch, b);
+    /**
+     * 워커 응답을 기다릴 최대 시간. 넘기면 응답하지 않은 워커를 죽은 것으로 보고 다시 띄우며,
+     * 다시 띄운 워커도 시간 안에 응답하지 않으면 run 이 IOException 으로 끝난다. 보내는 도중 워커가 읽지 않고 멈춘 경우와
+     * 이번 실행에만 띄우는 워커가 연결할 때까지도 같은 제한 시간을 쓴다. 기본값은 10 분이다.
+     */
+    public void setReplyTimeout(long millis) {
+        this.replyTimeoutMillis = millis;
+    }
 
-            latch.await();
-            updateCentroids();
+    /**
+     * @param processes 워커 풀을 지정하지 않았을 때 이번 실행에만 띄울 워커 수. 풀이 있으면 풀 크기를 사용한다.
+     * @param iterations 최대 반복 횟수
+     */
+    public ClusteringResult run(int processes, int iterations) throws IOException, InterruptedException {
+        if (workerPool != null) {
+            return run(workerPool, iterations);
+        }
+        try (WorkerPool pool = new WorkerPool(processes, replyTimeoutMillis)) {
+            return run(pool, iterations);
         }
+    }
+
+    private ClusteringResult run(WorkerPool pool, int iterations) throws IOException {
+        List<ProcessTaskHandler> processHandlers = createProcessHandlers(pool);
 
-        closeResources(processHandlers, executor);
-        return buildResult();
+        double[] sums = new double[k * dimensions];
+        int[] counts = new int[k];
+        iterationsRun = startIteration;
+        sent = centroids;
+        try (Selector selector = Selector.open()) {
+            for (ProcessTaskHandler handler : processHandlers) {
+                handler.register(selector);
+            }
+            while (iterationsRun < iterations) {
+                IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+                long assignStart = System.nanoTime();
+                boolean sendJob = iterationsRun == startIteration;
+
+                for (ProcessTaskHandler handler : processHandlers) {
+                    handler.send(dataPoints, centroids, sendJob);
+                }
+                sent = centroids;
+                awaitReplies(selector, processHandlers, handler -> handler.receivePartials(dataPoints, sent));
+
+                long reduceStart = System.nanoTime();
+                double[][] previous = centroids;
+                long changed = updateCentroids(processHandlers, sums, counts);
+                metrics.assignNanos = reduceStart - assignStart;
+                metrics.reduceNanos = System.nanoTime() - reduceStart;
+                metrics.changed = changed;
+                for (ProcessTaskHandler handler : processHandlers) {
+                    metrics.sendNanos += handler.sendNanos;
+                    metrics.receiveNanos += handler.receiveNanos;
+                    metrics.serializeNanos += handler.serializeNanos;
+                    metrics.bytesSent += handler.bytesSent;
+                    metrics.bytesReceived += handler.bytesReceived;
+                }
+                instrumentation.finish(metrics, sums, counts, centroids);
+                iterationsRun++;
+                if (convergence.isConverged(iterationsRun, previous, centroids, changed)) {
+                    break;
+                }
+            }
+
+            // 한 번도 반복하지 않았다면 워커에 작업이 없으므로 저장소의 레이블을 그대로 둔다.
+            if (iterationsRun > startIteration) {
+                fetchLabels(selector, processHandlers);
+            }
+        }
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
     }
 
-    private List<ProcessTaskHandler> createProcessHandlers(int processes) throws IOException {
+    private List<ProcessTaskHandler> createProcessHandlers(WorkerPool pool) {
         List<ProcessTaskHandler> handlers = new ArrayList<>();
-        int taskSize = dataPoints.length / processes;
+        int processes = pool.size();
+        int size = dataPoints.size();
+        int taskSize = size / processes;
         for (int i = 0; i < processes; i++) {
             int start = i * taskSize;
-            int end = (i == processes - 1) ? dataPoints.length : (i + 1) * taskSize;
-            handlers.add(new ProcessTaskHandler(start, end, k, ports[i], serverSockets[i]));
+            int end = (i == processes - 1) ? size : (i + 1) * taskSize;
+            handlers.add(new ProcessTaskHandler(pool, i, start, end, k, dimensions, algorithm, startIteration > 0,
+                replyTimeoutMillis));
         }
         return handlers;
     }
 
-    private void clusterProcess(ExecutorService executor, List<ProcessTaskHandler> handlers, CountDownLatch latch, boolean isFirst) {
-        for (int processIdx = 0; processIdx < handlers.size(); processIdx++) {
-            final int finalProcessIdx = processIdx;
-            int startIdx = handlers.get(finalProcessIdx).startIdx;
-            int endIdx = handlers.get(finalProcessIdx).endIdx;
-            executor.submit(() -> {
-                try {
-                    if (isFirst) {
-                        double[][] dataSlice = getDataSlice(startIdx, endIdx);
-                        handlers.get(finalProcessIdx).sendData(dataSlice);
+    /**
+     * 한 스레드에서 선택기로 응답이 도착하는 대로 워커마다 읽을 수 있는 만큼만 읽는다.
+     * 워커 수만큼 스레드를 두지 않으므로 워커가 수백 개여도 드라이버 스레드는 하나이며, 큰 응답도 워커끼리 겹쳐 받는다.
+     * 제한 시간 안에 응답하지 않은 워커는 다시 띄워 작업을 재전송하고 시간을 새로 잰다.
+     * 한 번 다시 띄운 워커가 또 시간을 넘기면 IOException 을 던진다.
+     */
+    private void awaitReplies(Selector selector, List<ProcessTaskHandler> handlers, Reply reply) throws IOException {
+        Set<ProcessTaskHandler> pending = new LinkedHashSet<>(handlers);
+        Set<ProcessTaskHandler> timedOut = new LinkedHashSet<>();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(replyTimeoutMillis);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!pending.isEmpty()) {
+            long wait = deadline - System.nanoTime();
+            if (wait <= 0) {
+                for (ProcessTaskHandler handler : pending) {
+                    if (!timedOut.add(handler)) {
+                        throw new IOException("Worker " + handler.workerIdx + " did not reply within "
+                            + replyTimeoutMillis + "ms after restart");
                     }
-                    handlers.get(finalProcessIdx).sendData(centroids);
-                    double[] processedData = handlers.get(finalProcessIdx).receiveData();
-                    for (int j = startIdx; j < endIdx; j++) {
-                        dataPoints[j][2] = processedData[j - startIdx];
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                } finally {
-                    latch.countDown();
+                    handler.fail(dataPoints, sent,
+                        new IOException("No reply within " + replyTimeoutMillis + "ms"));
+                }
+                deadline = System.nanoTime() + timeoutNanos;
+                continue;
+            }
+            selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                // 다시 띄운 워커의 옛 연결은 이미 취소되어 있다.
+                ProcessTaskHandler handler = (ProcessTaskHandler)key.attachment();
+                if (key.isValid() && reply.read(handler)) {
+                    pending.remove(handler);
                 }
-            });
-        }
-    }
-
-    private double[][] getDataSlice(int start, int end) {
-        return Arrays.copyOfRange(dataPoints, start, end);
-    }
-
-    private void updateCentroids() {
-        double[][] newCentroids = new double[k][2];
-        int[] counts = new int[k];
-
-        for (double[] point : dataPoints) {
-            int cluster = (int)point[2];
-            newCentroids[cluster][0] += point[0];
-            newCentroids[cluster][1] += point[1];
-            counts[cluster]++;
-        }
-
-        for (int i = 0; i < k; i++) {
-            if (counts[i] > 0) {
-                newCentroids[i][0] /= counts[i];
-                newCentroids[i][1] /= counts[i];
             }
         }
-
-        centroids = newCentroids;
     }
 
-    private void closeResources(List<ProcessTaskHandler> handlers, ExecutorService executor) throws IOException {
-        executor.shutdown();
+    /**
+     * 레이블은 워커가 보관하다가 반복이 모두 끝난 뒤 한 번만 받아온다.
+     * 도중에 죽은 워커는 다시 띄워 마지막으로 보낸 중심점으로 작업을 재실행한 뒤 레이블을 다시 요청한다.
+     */
+    private void fetchLabels(Selector selector, List<ProcessTaskHandler> handlers) throws IOException {
         for (ProcessTaskHandler handler : handlers) {
-            handler.close();
+            handler.requestLabels(dataPoints, sent);
         }
+        awaitReplies(selector, handlers, handler -> handler.receiveLabels(dataPoints, sent));
     }
 
-    private String buildResult() {
-        StringBuilder result = new StringBuilder();
-        int[] clusterSizes = new int[k];
-        for (double[] point : dataPoints) {
-            int cluster = (int)point[2];
-            clusterSizes[cluster]++;
-        }
+    /**
+     * 워커별 부분합 k 개씩만 병합하고 바뀐 레이블 수를 반환한다.
+     */
+    private long updateCentroids(List<ProcessTaskHandler> handlers, double[] sums, int[] counts) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+        long changed = 0;
 
-        for (int i = 0; i < k; i++) {
-            result.append("Cluster ").append(i + 1).append(": ").append(clusterSizes[i]).append("\n");
+        for (ProcessTaskHandler handler : handlers) {
+            for (int i = 0; i < k * dimensions; i++) {
+                sums[i] += handler.sums[i];
+            }
+            for (int i = 0; i < k; i++) {
+                counts[i] += handler.counts[i];
+            }
+            changed += handler.changed;
         }
-        return result.toString();
+
+        centroids = Centroids.fromSums(sums, counts, k, dimensions);
+        return changed;
     }
 }
 
+/**
+ * 선택기로 받은 워커 하나의 응답을 읽는다.
+ *
+ * @return 기다리던 응답을 다 읽었으면 true, 응답이 아직 다 오지 않았거나 워커를 다시 띄워 더 기다려야 하면 false
+ */
+interface Reply {
+    boolean read(ProcessTaskHandler handler) throws IOException;
+}
+
 class ProcessTaskHandler {
 
-    private final ObjectOutputStream out;
-    private final ObjectInputStream in;
+    private final WorkerPool pool;
+    final int workerIdx;
+    private final int k;
+    private final String algorithm;
+    private final long timeoutMillis;
     public final int startIdx;
     public final int endIdx;
+    public final double[] sums;
+    public final int[] counts;
+    public long changed;
+    // 마지막 반복의 소켓 통신 측정값. receive 는 중심점을 보낸 뒤 응답을 다 읽을 때까지 기다린 시간이고,
+    // serialize 는 이 핸들러의 쓰기/읽기 호출에 걸린 시간에서 실제 송수신을 뺀 값이다.
+    long sendNanos;
+    long receiveNanos;
+    long serializeNanos;
+    long bytesSent;
+    long bytesReceived;
+    private Selector selector;
+    private SelectionKey key;
+    private long sentAt;
+    private long busyNanos;
+    private boolean labelsRequested;
+    // 첫 작업과 함께 저장소의 레이블을 보낼지. 다시 띄운 워커에는 이미 지난 레이블이므로 보내지 않는다.
+    private boolean restoreLabels;
+    // 레이블을 요청한 뒤 다시 띄운 워커가 재실행한 반복의 부분합을 아직 읽지 않았다.
+    private boolean replaying;
 
-    public ProcessTaskHandler(int startIdx, int endIdx, int k, int port, ServerSocket serverSocket) throws
-        IOException {
-        ProcessBuilder processBuilder = new ProcessBuilder("java",
-            "-cp",
-            "build/libs/os-lab.jar",
-            "org.example.kmeans.ProcessTask",
-            String.valueOf(k),
-            String.valueOf(port));
-        Process process = processBuilder.start();
-        Socket socket = serverSocket.accept();
-        this.out = new ObjectOutputStream(socket.getOutputStream());
-        this.in = new ObjectInputStream(socket.getInputStream());
+    public ProcessTaskHandler(WorkerPool pool, int workerIdx, int startIdx, int endIdx, int k, int dimensions,
+        String algorithm, boolean restoreLabels, long timeoutMillis) {
+        this.pool = pool;
+        this.timeoutMillis = timeoutMillis;
+        this.restoreLabels = restoreLabels;
+        this.workerIdx = workerIdx;
+        this.k = k;
+        this.algorithm = algorithm;
         this.startIdx = startIdx;
         this.endIdx = endIdx;
+        this.sums = new double[k * dimensions];
+        this.counts = new int[k];
+    }
+
+    /**
+     * 워커 연결을 드라이버의 선택기에 등록한다. 응답을 기다리는 동안에만 읽기 관심을 켠다.
+     * 보내는 도중 워커가 읽지 않고 멈추면 응답 제한 시간 뒤 실패로 처리한다.
+     */
+    public void register(Selector selector) throws IOException {
+        this.selector = selector;
+        channel().setTimeout(timeoutMillis);
+        this.key = channel().register(selector, this);
+    }
+
+    /**
+     * 워커에 새 작업을 알리고, 맡은 구간을 중간 복사본 없이 저장소에서 바로 전송한다.
+     * 이어서 실행하는 첫 작업이면 저장소에 복원해 둔 레이블도 보낸다.
+     */
+    public void startJob(PointStore points) throws IOException {
+        FrameChannel channel = channel();
+        channel.writeJob(k, algorithm);
+        channel.writePoints(points, startIdx, endIdx);
+        if (restoreLabels) {
+            channel.writeRestore(points, startIdx, endIdx);
+            restoreLabels = false;
+        }
     }
 
-    public void sendData(double[][] data) throws IOException {
-        out.writeObject(data);
+    /**
+     * 중심점을 보낸다. startJob 이 true 이면 먼저 작업과 포인트를 보낸다.
+     * 워커가 도중에 죽었다면 한 번 다시 띄워 작업을 재전송한다.
+     */
+    public void send(PointStore points, double[][] centroids, boolean startJob) throws IOException {
+        long start = System.nanoTime();
+        sentAt = start;
+        channel().resetTraffic();
+        try {
+            if (startJob) {
+                startJob(points);
+            }
+            channel().writeCentroids(centroids);
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            fail(points, centroids, e);
+        }
+        busyNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 선택기가 읽을 수 있다고 알린 연결에서 클러스터별 합계와 개수를 sums, counts, changed 에 받는다.
+     * 응답이 아직 다 오지 않았거나, 워커가 죽어 다시 띄우고 작업을 재전송했다면 false 를 반환한다.
+     */
+    public boolean receivePartials(PointStore points, double[][] centroids) throws IOException {
+        long start = System.nanoTime();
+        FrameChannel channel = channel();
+        try {
+            if (!channel.receive(FrameChannel.partialsBytes(k, sums.length / k))) {
+                busyNanos += System.nanoTime() - start;
+                return false;
+            }
+            channel.expect(FrameChannel.PARTIALS);
+            changed = channel.readPartials(sums, counts);
+        } catch (IOException e) {
+            fail(points, centroids, e);
+            busyNanos += System.nanoTime() - start;
+            return false;
+        }
+        key.interestOps(0);
+        long end = System.nanoTime();
+        busyNanos += end - start;
+        sendNanos = channel.sendNanos;
+        receiveNanos = end - sentAt - busyNanos + channel.receiveNanos;
+        serializeNanos = Math.max(0, busyNanos - channel.sendNanos - channel.receiveNanos);
+        bytesSent = channel.bytesSent;
+        bytesReceived = channel.bytesReceived;
+        return true;
+    }
+
+    /**
+     * @param centroids 워커에 마지막으로 보낸 중심점. 워커가 죽었다면 이 중심점으로 작업을 재실행한다.
+     */
+    public void requestLabels(PointStore points, double[][] centroids) throws IOException {
+        labelsRequested = true;
+        try {
+            channel().requestLabels();
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            fail(points, centroids, e);
+        }
+    }
+
+    /**
+     * 선택기가 읽을 수 있다고 알린 연결에서 맡은 구간의 레이블을 points 에 받는다. 응답이 아직 다 오지 않았으면 false 를 반환한다.
+     * 다시 띄운 워커라면 재실행한 반복의 부분합을 버리고 레이블을 다시 요청한 뒤 false 를 반환한다.
+     */
+    public boolean receiveLabels(PointStore points, double[][] centroids) throws IOException {
+        FrameChannel channel = channel();
+        try {
+            if (replaying) {
+                if (!channel.receive(FrameChannel.partialsBytes(k, sums.length / k))) {
+                    return false;
+                }
+                channel.expect(FrameChannel.PARTIALS);
+                channel.readPartials(sums, counts);
+                replaying = false;
+                requestLabels(points, centroids);
+                return false;
+            }
+            if (!channel.receive(FrameChannel.labelsBytes(endIdx - startIdx))) {
+                return false;
+            }
+            channel.expect(FrameChannel.LABELS);
+            channel.readLabels(points, startIdx, endIdx);
+        } catch (IOException e) {
+            fail(points, centroids, e);
+            return false;
+        }
+        key.interestOps(0);
+        return true;
     }
 
-    public double[] receiveData() throws IOException, ClassNotFoundException {
-        return (double[])in.readObject();
+    private FrameChannel channel() {
+        return pool.get(workerIdx).channel;
     }
 
-    public void close() throws IOException {
-        out.close();
-        in.close();
+    /**
+     * 죽었거나 응답하지 않는 워커를 다시 띄우고 작업과 centroids 를 재전송한다.
+     * 레이블을 요청한 뒤라면 재실행한 반복의 부분합부터 받도록 표시한다.
+     */
+    void fail(PointStore points, double[][] centroids, IOException cause) throws IOException {
+        System.err.println("Worker " + workerIdx + " failed, restarting: " + cause.getMessage());
+        pool.restart(workerIdx);
+        register(selector);
+        startJob(points);
+        channel().writeCentroids(centroids);
+        key.interestOps(SelectionKey.OP_READ);
+        replaying = labelsRequested;
     }
 }
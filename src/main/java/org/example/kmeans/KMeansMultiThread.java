@@ -1,105 +1,172 @@
 package org.example.kmeans;
 
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.example.data.PointStore;
 
 public class KMeansMultiThread {
-    private double[][] dataPoints;
+    // 스레드별 부분합 배열이 같은 캐시 라인을 공유하지 않도록 뒤에 덧붙이는 여유 공간
+    private static final int PADDING = 16;
+
+    private PointStore dataPoints;
     private int k;
-    private double
-        [][] centroids;
+    private final int dimensions;
+    private double[][] centroids;
+    private final Assigner assigner;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+
+    public KMeansMultiThread(PointStore dataPoints, int k) {
+        this(dataPoints, k, "lloyd");
+    }
 
-    public KMeansMultiThread(double[][] dataPoints, int k) {
+    public KMeansMultiThread(PointStore dataPoints, int k, String algorithm) {
         this.dataPoints = dataPoints;
         this.k = k;
-        this.centroids = new double[k][2];
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("multiThread", dataPoints);
+        this.centroids = Centroids.initial(dataPoints, k);
+        this.assigner = Assigner.create(algorithm, dataPoints, k);
+    }
 
-        for (int i = 0; i < k; i++) {
-            centroids[i][0] = dataPoints[i][0];
-            centroids[i][1] = dataPoints[i][1];
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
         }
     }
 
-    public String run(int threads, int iterations) throws InterruptedException {
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
+    }
+
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
+
+    public int getIterations() {
+        return iterationsRun;
+    }
+
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
+    }
+
+    /**
+     * 작업 스레드에서 난 예외는 그 반복의 작업이 모두 끝난 뒤 run 에서 다시 던진다.
+     *
+     * @param iterations 최대 반복 횟수
+     */
+    public ClusteringResult run(int threads, int iterations) throws InterruptedException {
         ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return run(executor, threads, iterations);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ClusteringResult run(ExecutorService executor, int threads, int iterations) throws InterruptedException {
+        int size = dataPoints.size();
+        int taskSize = size / threads;
+        double[][] partialSums = new double[threads][k * dimensions + PADDING];
+        int[][] partialCounts = new int[threads][k + PADDING];
+        AtomicLong changed = new AtomicLong();
+        double[] totalSums = new double[k * dimensions];
+        int[] totalCounts = new int[k];
 
-        for (int iter = 0; iter < iterations; iter++) {
-            int taskSize = dataPoints.length / threads;
+        iterationsRun = startIteration;
+        while (iterationsRun < iterations) {
+            IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+            long assignStart = System.nanoTime();
+            assigner.prepare(centroids);
+            changed.set(0);
             CountDownLatch latch = new CountDownLatch(threads);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
             for (int j = 0; j < threads; j++) {
                 int start = j * taskSize;
-                int end = (j == threads - 1) ? dataPoints.length : (j + 1) * taskSize;
+                int end = (j == threads - 1) ? size : (j + 1) * taskSize;
+                double[] sums = partialSums[j];
+                int[] counts = partialCounts[j];
                 executor.submit(() -> {
                     try {
-                        assignPointsToClusters(start, end);
+                        changed.addAndGet(assignAndAccumulate(start, end, sums, counts));
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
                     } finally {
                         latch.countDown();
                     }
                 });
             }
             latch.await();
-            updateCentroids();
+            rethrow(failure.get());
+            long reduceStart = System.nanoTime();
+            double[][] previous = centroids;
+            updateCentroids(partialSums, partialCounts, totalSums, totalCounts);
+            metrics.assignNanos = reduceStart - assignStart;
+            metrics.reduceNanos = System.nanoTime() - reduceStart;
+            metrics.changed = changed.get();
+            instrumentation.finish(metrics, totalSums, totalCounts, centroids);
+            iterationsRun++;
+            if (convergence.isConverged(iterationsRun, previous, centroids, changed.get())) {
+                break;
+            }
         }
 
-        executor.shutdown();
-        return buildResult();
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
     }
 
-    private void assignPointsToClusters(int start, int end) {
-        for (int i = start; i < end; i++) {
-            double[] point = dataPoints[i];
-            int closestCluster = findClosestCluster(point);
-            point[2] = closestCluster;
+    private static void rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException)t;
         }
-    }
-
-    private int findClosestCluster(double[] point) {
-        int closestCluster = 0;
-        double minDistance = Double.MAX_VALUE;
-        for (int i = 0; i < k; i++) {
-            double distance = Math.sqrt(Math.pow(point[0] - centroids[i][0], 2) + Math.pow(point[1] - centroids[i][1], 2));
-            if (distance < minDistance) {
-                closestCluster = i;
-                minDistance = distance;
-            }
+        if (t instanceof Error) {
+            throw (Error)t;
         }
-        return closestCluster;
     }
 
-    private void updateCentroids() {
-        double[][] newCentroids = new double[k][2];
-        int[] counts = new int[k];
+    /**
+     * 한 번의 순회로 포인트를 할당하면서 워커 자신의 클러스터별 합계와 개수를 누적한다.
+     */
+    private int assignAndAccumulate(int start, int end, double[] sums, int[] counts) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+        return assigner.assign(start, end, sums, counts);
+    }
 
-        for (double[] point : dataPoints) {
-            int cluster = (int) point[2];
-            newCentroids[cluster][0] += point[0];
-            newCentroids[cluster][1] += point[1];
-            counts[cluster]++;
-        }
+    /**
+     * 워커별 부분 결과 k 개씩만 병합한다.
+     */
+    private void updateCentroids(double[][] partialSums, int[][] partialCounts, double[] sums, int[] counts) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
 
-        for (int i = 0; i < k; i++) {
-            if (counts[i] > 0) {
-                newCentroids[i][0] /= counts[i];
-                newCentroids[i][1] /= counts[i];
+        for (int t = 0; t < partialSums.length; t++) {
+            for (int i = 0; i < k * dimensions; i++) {
+                sums[i] += partialSums[t][i];
+            }
+            for (int i = 0; i < k; i++) {
+                counts[i] += partialCounts[t][i];
             }
         }
 
-        centroids = newCentroids;
-    }
-
-    private String buildResult() {
-        StringBuilder result = new StringBuilder();
-        int[] clusterSizes = new int[k];
-        for (double[] point : dataPoints) {
-            int cluster = (int) point[2];
-            clusterSizes[cluster]++;
-        }
-
-        for (int i = 0; i < k; i++) {
-            result.append("Cluster ").append(i + 1).append(": ").append(clusterSizes[i]).append("\n");
-        }
-        return result.toString();
+        centroids = Centroids.fromSums(sums, counts, k, dimensions);
     }
 }
\ No newline at end of file
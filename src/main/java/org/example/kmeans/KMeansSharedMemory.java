@@ -0,0 +1,201 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.data.MappedPointStore;
+import org.example.data.PointFile;
+import org.example.data.PointStore;
+
+/**
+ * 공유 메모리 기반 멀티 프로세스 K-means.
+ * 포인트는 메모리 매핑된 {@link PointFile} 로 모든 워커가 읽기 전용으로 공유하므로 워커 힙에 복사되지 않는다.
+ * 중심점과 워커별 부분합은 작은 제어 영역({@link SharedControl})을 통해 주고받는다.
+ */
+public class KMeansSharedMemory {
+
+    private PointStore dataPoints;
+    private final int k;
+    private final int dimensions;
+    private final String algorithm;
+    private double[][] centroids;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+
+    public KMeansSharedMemory(PointStore dataPoints, int k) {
+        this(dataPoints, k, "lloyd");
+    }
+
+    public KMeansSharedMemory(PointStore dataPoints, int k, String algorithm) {
+        this.dataPoints = dataPoints;
+        this.k = k;
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("sharedMemory", dataPoints);
+        this.algorithm = algorithm;
+        this.centroids = Centroids.initial(dataPoints, k);
+    }
+
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
+        }
+    }
+
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
+    }
+
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     * 0 보다 크면 저장소에 복원해 둔 레이블을 제어 영역에 써 두고 워커가 시작할 때 읽게 한다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
+
+    public int getIterations() {
+        return iterationsRun;
+    }
+
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
+    }
+
+    /**
+     * @param iterations 최대 반복 횟수
+     */
+    public ClusteringResult run(int processes, int iterations) throws IOException, InterruptedException {
+        Path dataPath = sharedDataPath();
+        boolean temporaryData = dataPath == null;
+        if (temporaryData) {
+            dataPath = Files.createTempFile("kmeans-points", ".bin");
+            PointFile.write(dataPoints, dataPath);
+        }
+        Path controlPath = createControlFile();
+        SharedControl control = SharedControl.create(controlPath, k, dimensions, processes);
+        boolean restoreLabels = startIteration > 0;
+
+        int size = dataPoints.size();
+        int taskSize = size / processes;
+        Process[] workers = new Process[processes];
+        try {
+            if (restoreLabels) {
+                control.writeLabels(dataPoints, 0);
+            }
+            for (int i = 0; i < processes; i++) {
+                int start = i * taskSize;
+                int end = (i == processes - 1) ? size : (i + 1) * taskSize;
+                workers[i] = startWorker(dataPath, controlPath, i, processes, start, end, restoreLabels);
+            }
+
+            double[] sums = new double[k * dimensions];
+            int[] counts = new int[k];
+            iterationsRun = startIteration;
+            while (iterationsRun < iterations) {
+                IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+                long assignStart = System.nanoTime();
+                long generation = control.publish(SharedControl.RUN, centroids);
+                long sent = System.nanoTime();
+                Arrays.fill(sums, 0);
+                Arrays.fill(counts, 0);
+                long changed = 0;
+                long reduceNanos = 0;
+                for (int i = 0; i < processes; i++) {
+                    control.awaitCompletion(i, generation, workers[i]);
+                    long accumulateStart = System.nanoTime();
+                    changed += control.accumulate(i, sums, counts);
+                    reduceNanos += System.nanoTime() - accumulateStart;
+                }
+
+                long reduceStart = System.nanoTime();
+                double[][] previous = centroids;
+                centroids = Centroids.fromSums(sums, counts, k, dimensions);
+                metrics.assignNanos = reduceStart - assignStart - reduceNanos;
+                metrics.reduceNanos = reduceNanos + System.nanoTime() - reduceStart;
+                metrics.sendNanos = sent - assignStart;
+                metrics.changed = changed;
+                metrics.bytesSent = control.centroidBytes();
+                metrics.bytesReceived = (long)control.slotBytes() * processes;
+                instrumentation.finish(metrics, sums, counts, centroids);
+                iterationsRun++;
+                if (convergence.isConverged(iterationsRun, previous, centroids, changed)) {
+                    break;
+                }
+            }
+
+            long generation = control.publish(SharedControl.EXIT, centroids);
+            for (int i = 0; i < processes; i++) {
+                control.awaitCompletion(i, generation, workers[i]);
+            }
+            control.readLabels(dataPoints, 0);
+        } finally {
+            for (Process worker : workers) {
+                if (worker != null && !worker.waitFor(1, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+            control.close();
+            Files.deleteIfExists(controlPath);
+            if (temporaryData) {
+                Files.deleteIfExists(dataPath);
+            }
+        }
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
+    }
+
+    /**
+     * 포인트가 이미 파일 전체를 매핑한 저장소라면 그 파일을 그대로 공유한다.
+     */
+    private Path sharedDataPath() {
+        if (dataPoints instanceof MappedPointStore) {
+            MappedPointStore mapped = (MappedPointStore)dataPoints;
+            if (mapped.getFirst() == 0) {
+                return mapped.getPath();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 리눅스에서는 디스크에 쓰이지 않도록 tmpfs(/dev/shm)에 제어 파일을 만든다.
+     */
+    private static Path createControlFile() throws IOException {
+        Path shm = Path.of("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return Files.createTempFile(shm, "kmeans-control", ".bin");
+        }
+        return Files.createTempFile("kmeans-control", ".bin");
+    }
+
+    private Process startWorker(Path dataPath, Path controlPath, int worker, int processes, int start, int end,
+        boolean restoreLabels) throws IOException {
+        List<String> command = WorkerPool.javaCommand(SharedMemoryTask.class.getName());
+        command.addAll(List.of(
+            dataPath.toString(),
+            controlPath.toString(),
+            String.valueOf(worker),
+            String.valueOf(processes),
+            String.valueOf(start),
+            String.valueOf(end),
+            String.valueOf(k),
+            algorithm,
+            String.valueOf(restoreLabels)));
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return processBuilder.start();
+    }
+}
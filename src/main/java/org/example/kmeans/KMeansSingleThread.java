@@ -1,82 +1,95 @@
 package org.example.kmeans;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+
+import org.example.data.PointStore;
 
 public class KMeansSingleThread {
-    private double[][] dataPoints;
+    private PointStore dataPoints;
     private int k;
+    private final int dimensions;
     private double[][] centroids;
+    private final Assigner assigner;
+    private Convergence convergence = Convergence.none();
+    private final Instrumentation instrumentation;
+    private int iterationsRun;
+    private int startIteration;
+
+    public KMeansSingleThread(PointStore dataPoints, int k) {
+        this(dataPoints, k, "lloyd");
+    }
 
-    public KMeansSingleThread(double[][] dataPoints, int k) {
+    public KMeansSingleThread(PointStore dataPoints, int k, String algorithm) {
         this.dataPoints = dataPoints;
         this.k = k;
-        this.centroids = new double[k][2];
-
+        this.dimensions = dataPoints.dimensions();
+        this.instrumentation = new Instrumentation("single", dataPoints);
         // 초기 중심점 설정
-        for (int i = 0; i < k; i++) {
-            centroids[i][0] = dataPoints[i][0];
-            centroids[i][1] = dataPoints[i][1];
-        }
+        this.centroids = Centroids.initial(dataPoints, k);
+        this.assigner = Assigner.create(algorithm, dataPoints, k);
     }
 
-    public String run(int iterations) {
-        for (int i = 0; i < iterations; i++) {
-            for (double[] point : dataPoints) {
-                int closestCluster = 0;
-                double minDistance = Double.MAX_VALUE;
-                for (int j = 0; j < k; j++) {
-                    double distance = distance(point, centroids[j]);
-                    if (distance < minDistance) {
-                        closestCluster = j;
-                        minDistance = distance;
-                    }
-                }
-                point[2] = closestCluster;
-            }
-            updateCentroids();
+    /**
+     * 초기 중심점을 지정한다. 지정하지 않으면 처음 k 개의 포인트를 사용한다.
+     */
+    public void setCentroids(double[][] centroids) {
+        this.centroids = new double[k][];
+        for (int j = 0; j < k; j++) {
+            this.centroids[j] = centroids[j].clone();
         }
-
-        return buildResult();
     }
 
-    private double distance(double[] point, double[] centroid) {
-        return Math.sqrt(Math.pow(point[0] - centroid[0], 2) + Math.pow(point[1] - centroid[1], 2));
+    public void setConvergence(Convergence convergence) {
+        this.convergence = convergence;
     }
 
-    private void updateCentroids() {
-        double[][] newCentroids = new double[k][2];
-        int[] counts = new int[k];
-
-        // 새 중심점 계산
-        for (double[] point : dataPoints) {
-            int cluster = (int) point[2];
-            newCentroids[cluster][0] += point[0];
-            newCentroids[cluster][1] += point[1];
-            counts[cluster]++;
-        }
+    /**
+     * 체크포인트에서 이어서 실행할 때 이미 끝난 반복 수를 지정한다. 반복 번호와 결과의 반복 수가 여기서부터 이어지며,
+     * run 의 iterations 는 이 값을 포함한 전체 최대 반복 횟수가 된다.
+     */
+    public void setStartIteration(int startIteration) {
+        this.startIteration = startIteration;
+    }
 
-        for (int i = 0; i < k; i++) {
-            if (counts[i] > 0) {
-                newCentroids[i][0] /= counts[i];
-                newCentroids[i][1] /= counts[i];
-            }
-        }
+    public int getIterations() {
+        return iterationsRun;
+    }
 
-        centroids = newCentroids;
+    /**
+     * 반복마다 측정값을 받을 리스너를 등록한다.
+     */
+    public void addIterationListener(IterationListener listener) {
+        instrumentation.addListener(listener);
     }
 
-    private String buildResult() {
-        StringBuilder result = new StringBuilder();
-        int[] clusterSizes = new int[k];
-        for (double[] point : dataPoints) {
-            int cluster = (int) point[2];
-            clusterSizes[cluster]++;
+    /**
+     * @param iterations 최대 반복 횟수
+     */
+    public ClusteringResult run(int iterations) {
+        int size = dataPoints.size();
+        double[] sums = new double[k * dimensions];
+        int[] counts = new int[k];
+        iterationsRun = startIteration;
+        while (iterationsRun < iterations) {
+            IterationMetrics metrics = instrumentation.begin(iterationsRun + 1);
+            long assignStart = System.nanoTime();
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+            assigner.prepare(centroids);
+            int changed = assigner.assign(0, size, sums, counts);
+            long reduceStart = System.nanoTime();
+            double[][] previous = centroids;
+            centroids = Centroids.fromSums(sums, counts, k, dimensions);
+            metrics.assignNanos = reduceStart - assignStart;
+            metrics.reduceNanos = System.nanoTime() - reduceStart;
+            metrics.changed = changed;
+            instrumentation.finish(metrics, sums, counts, centroids);
+            iterationsRun++;
+            if (convergence.isConverged(iterationsRun, previous, centroids, changed)) {
+                break;
+            }
         }
 
-        for (int i = 0; i < k; i++) {
-            result.append("Cluster ").append(i + 1).append(": ").append(clusterSizes[i]).append("\n");
-        }
-        return result.toString();
+        return new ClusteringResult(dataPoints, centroids, iterationsRun);
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.example.data.CsvPointReader;
+
+/**
+ * 순차(online) K-means (MacQueen).
+ * 포인트를 청크 단위로 읽으면서 하나씩 가장 가까운 중심점에 배정하고,
+ * 그 중심점을 배정된 포인트 수의 역수만큼 옮긴다. 처음 k 개의 포인트가 초기 중심점이 된다.
+ * 포인트를 보관하지 않으므로 메모리 사용량은 청크 크기와 k 에만 비례한다.
+ * 클러스터별 inertia 와 radius 는 배정하는 순간의 중심점까지 거리로 모은다.
+ */
+public class KMeansStreaming {
+
+    private final int k;
+    private final int dimensions;
+    private final double[][] centroids;
+    private final long[] counts;
+    private final double[] inertia;
+    private final double[] maxSquared;
+    private long pointsSeen;
+
+    public KMeansStreaming(int k, int dimensions) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Cannot choose " + k + " initial centroids");
+        }
+        this.k = k;
+        this.dimensions = dimensions;
+        this.centroids = new double[k][dimensions];
+        this.counts = new long[k];
+        this.inertia = new double[k];
+        this.maxSquared = new double[k];
+    }
+
+    public void accept(double[] point) {
+        if (pointsSeen < k) {
+            int cluster = (int)pointsSeen;
+            System.arraycopy(point, 0, centroids[cluster], 0, dimensions);
+            counts[cluster] = 1;
+            pointsSeen++;
+            return;
+        }
+
+        int closestCluster = Distances.closest(point, centroids);
+        double[] centroid = centroids[closestCluster];
+        double distance = Distances.squared(point, centroid);
+        inertia[closestCluster] += distance;
+        maxSquared[closestCluster] = Math.max(maxSquared[closestCluster], distance);
+        double eta = 1.0 / ++counts[closestCluster];
+        for (int d = 0; d < dimensions; d++) {
+            centroid[d] += eta * (point[d] - centroid[d]);
+        }
+        pointsSeen++;
+    }
+
+    /**
+     * 입력이 끝날 때까지 chunkSize 개씩 읽어 처리하고, snapshotInterval 개의 포인트마다 중심점 스냅샷을 출력한다.
+     *
+     * @param snapshotInterval 0 이하이면 스냅샷을 출력하지 않는다.
+     * @return 한 번 훑은 결과(반복 수 1). 레이블은 없다.
+     * @throws IllegalArgumentException 입력이 끝날 때까지 포인트가 k 개보다 적을 때
+     */
+    public ClusteringResult run(CsvPointReader reader, int chunkSize, long snapshotInterval, PrintStream snapshots)
+        throws IOException {
+        double[][] columns = new double[dimensions][chunkSize];
+        double[] point = new double[dimensions];
+        long nextSnapshot = snapshotInterval;
+        int read;
+        while ((read = reader.read(columns)) > 0) {
+            for (int i = 0; i < read; i++) {
+                for (int d = 0; d < dimensions; d++) {
+                    point[d] = columns[d][i];
+                }
+                accept(point);
+                if (snapshotInterval > 0 && pointsSeen == nextSnapshot) {
+                    snapshots.print(buildSnapshot());
+                    nextSnapshot += snapshotInterval;
+                }
+            }
+        }
+        if (pointsSeen < k) {
+            throw new IllegalArgumentException("Cannot choose " + k + " initial centroids from "
+                + pointsSeen + " points");
+        }
+        return buildResult();
+    }
+
+    public long getPointsSeen() {
+        return pointsSeen;
+    }
+
+    public double[][] getCentroids() {
+        double[][] copy = new double[k][];
+        for (int j = 0; j < k; j++) {
+            copy[j] = centroids[j].clone();
+        }
+        return copy;
+    }
+
+    private String buildSnapshot() {
+        StringBuilder snapshot = new StringBuilder();
+        snapshot.append("Snapshot at ").append(pointsSeen).append(" points\n");
+        for (int j = 0; j < k; j++) {
+            snapshot.append("Centroid ").append(j + 1).append(": ");
+            for (int d = 0; d < dimensions; d++) {
+                snapshot.append(d == 0 ? "" : ",").append(centroids[j][d]);
+            }
+            snapshot.append("\n");
+        }
+        return snapshot.toString();
+    }
+
+    private ClusteringResult buildResult() {
+        int[] sizes = new int[k];
+        double[] radius = new double[k];
+        for (int j = 0; j < k; j++) {
+            sizes[j] = Math.toIntExact(counts[j]);
+            radius[j] = Math.sqrt(maxSquared[j]);
+        }
+        return new ClusteringResult(centroids, sizes, inertia, radius, 1);
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.kmeans;
+
+import org.example.data.PointStore;
+
+/**
+ * 중심점 위의 k-d 트리로 가장 가까운 중심점을 찾는 할당. 중심점 수가 많을 때 포인트마다 모든 중심점을 훑지 않는다.
+ * {@link #prepare(double[][])} 에서 매 반복 트리를 다시 만든다 (O(k log k)). 트리는 배열 하나에 암시적으로 저장하며,
+ * [lo, hi) 구간의 노드는 가운데 위치 mid 이고 왼쪽은 분할 차원 좌표가 작거나 같은 중심점, 오른쪽은 크거나 같은 중심점이다.
+ * 분할 차원은 구간에서 좌표 범위가 가장 넓은 차원이다.
+ * <p>
+ * 탐색은 포인트의 이전 중심점을 첫 후보로 두고 가까운 쪽 부분 트리부터 내려가며, 분할면까지의 거리 제곱이
+ * 지금까지의 최솟값보다 크면 반대쪽을 건너뛴다. 거리는 lloyd 와 같은 순서로 차원을 더하고 동점이면 작은 인덱스가
+ * 이기므로 lloyd 와 같은 할당을 낸다. 저차원에서는 탐색 비용이 k 에 대해 대략 로그로 늘지만,
+ * 차원이 높아질수록 가지치기가 줄어 전체 탐색에 가까워진다.
+ */
+class KdTreeAssigner implements Assigner {
+
+    private final PointStore points;
+    private final int k;
+    private final int dimensions;
+    // 트리 순서로 늘어놓은 중심점 좌표 [position * d + dim], 원래 인덱스, 분할 차원
+    private final double[] nodes;
+    private final int[] ids;
+    private final int[] splitDimensions;
+    private final int[] positions;
+
+    KdTreeAssigner(PointStore points, int k) {
+        this.points = points;
+        this.k = k;
+        this.dimensions = points.dimensions();
+        this.nodes = new double[k * dimensions];
+        this.ids = new int[k];
+        this.splitDimensions = new int[k];
+        this.positions = new int[k];
+    }
+
+    @Override
+    public void prepare(double[][] centroids) {
+        for (int j = 0; j < k; j++) {
+            ids[j] = j;
+        }
+        build(centroids, 0, k);
+        for (int p = 0; p < k; p++) {
+            System.arraycopy(centroids[ids[p]], 0, nodes, p * dimensions, dimensions);
+            positions[ids[p]] = p;
+        }
+    }
+
+    @Override
+    public int assign(int start, int end, double[] sums, int[] counts) {
+        Search search = new Search(dimensions);
+        double[] point = search.point;
+        int changed = 0;
+        for (int i = start; i < end; i++) {
+            points.copyPoint(i, point);
+            int cluster = points.label(i);
+            if (cluster < 0 || cluster >= k) {
+                cluster = 0;
+            }
+            search.bestId = cluster;
+            search.best = distance(point, positions[cluster], Double.MAX_VALUE);
+            search.search(0, k);
+            int closestCluster = search.bestId;
+            if (closestCluster != points.label(i)) {
+                points.setLabel(i, closestCluster);
+                changed++;
+            }
+            Centroids.accumulate(sums, closestCluster, point);
+            counts[closestCluster]++;
+        }
+        return changed;
+    }
+
+    private void build(double[][] centroids, int lo, int hi) {
+        while (hi - lo > 1) {
+            int dimension = widestDimension(centroids, lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(centroids, dimension, lo, hi - 1, mid);
+            splitDimensions[mid] = dimension;
+            build(centroids, lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    private int widestDimension(double[][] centroids, int lo, int hi) {
+        int widest = 0;
+        double widestRange = -1;
+        for (int d = 0; d < dimensions; d++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int p = lo; p < hi; p++) {
+                double value = centroids[ids[p]][d];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestRange) {
+                widestRange = max - min;
+                widest = d;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * ids[left..right] 를 dimension 좌표 기준으로 부분 정렬하여 nth 위치에 중앙값이 오게 한다 (quickselect).
+     */
+    private void select(double[][] centroids, int dimension, int left, int right, int nth) {
+        while (left < right) {
+            double pivot = centroids[ids[(left + right) >>> 1]][dimension];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (centroids[ids[i]][dimension] < pivot) {
+                    i++;
+                }
+                while (centroids[ids[j]][dimension] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = ids[i];
+                    ids[i] = ids[j];
+                    ids[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) {
+                right = j;
+            } else if (nth >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 트리 위치 position 의 중심점까지의 거리 제곱. limit 를 넘으면 더 더하지 않고 그때까지의 값을 반환한다.
+     */
+    private double distance(double[] point, int position, double limit) {
+        int offset = position * dimensions;
+        double sum = 0;
+        for (int d = 0; d < dimensions; d++) {
+            double diff = point[d] - nodes[offset + d];
+            sum += diff * diff;
+            if (sum > limit) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 스레드마다 하나씩 쓰는 탐색 상태.
+     */
+    private final class Search {
+        final double[] point;
+        double best;
+        int bestId;
+
+        Search(int dimensions) {
+            this.point = new double[dimensions];
+        }
+
+        void search(int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                double distance = distance(point, mid, best);
+                if (distance < best || (distance == best && ids[mid] < bestId)) {
+                    best = distance;
+                    bestId = ids[mid];
+                }
+                int dimension = splitDimensions[mid];
+                double diff = point[dimension] - nodes[mid * dimensions + dimension];
+                if (diff < 0) {
+                    search(lo, mid);
+                    lo = mid + 1;
+                } else {
+                    search(mid + 1, hi);
+                    hi = mid;
+                }
+                // 분할면 너머의 중심점은 모두 diff 제곱 이상 떨어져 있다.
+                if (diff * diff > best) {
+                    return;
+                }
+            }
+        }
+    }
+}
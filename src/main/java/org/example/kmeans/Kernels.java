@@ -0,0 +1,76 @@
+package org.example.kmeans;
+
+import org.example.data.PointStore;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+/**
+ * Lloyd 할당 커널 선택. jdk.incubator.vector 모듈이 로드된 경우(--add-modules jdk.incubator.vector)
+ * SIMD 커널을 쓰고, 그렇지 않으면 스칼라 커널을 쓴다. kmeans.kernel 시스템 프로퍼티(auto, scalar, vector)로
+ * 강제할 수 있으며 워커 프로세스에도 같은 설정이 전달된다.
+ */
+public final class Kernels {
+
+    public static final String PROPERTY = "kmeans.kernel";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_ASSIGNER = "org.example.kmeans.VectorLloydAssigner";
+
+    private Kernels() {
+    }
+
+    public static void select(String kernel) {
+        switch (kernel) {
+            case "auto":
+            case "scalar":
+                break;
+            case "vector":
+                if (!isVectorAvailable()) {
+                    throw new IllegalStateException("Vector kernel requires --add-modules " + VECTOR_MODULE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kernel: " + kernel);
+        }
+        System.setProperty(PROPERTY, kernel);
+    }
+
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    static Assigner lloyd(PointStore points, int k) {
+        if (!useVector()) {
+            return new LloydAssigner(points, k);
+        }
+        // 모듈이 없을 때 VectorLloydAssigner 가 로드되지 않도록 리플렉션으로 생성한다.
+        try {
+            Constructor<?> constructor = Class.forName(VECTOR_ASSIGNER)
+                    .getDeclaredConstructor(PointStore.class, int.class);
+            return (Assigner) constructor.newInstance(points, k);
+        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException
+                 | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create vector kernel", e);
+        }
+    }
+
+    /**
+     * 자식 JVM 에 현재 커널 설정을 넘기기 위한 인자.
+     */
+    static void addJvmArguments(List<String> command) {
+        if (isVectorAvailable()) {
+            command.add("--add-modules");
+            command.add(VECTOR_MODULE);
+        }
+        String kernel = System.getProperty(PROPERTY);
+        if (kernel != null) {
+            command.add("-D" + PROPERTY + "=" + kernel);
+        }
+    }
+
+    private static boolean useVector() {
+        String kernel = System.getProperty(PROPERTY, "auto");
+        return !kernel.equals("scalar") && isVectorAvailable();
+    }
+}
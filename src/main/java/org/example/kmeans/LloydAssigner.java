@@ -0,0 +1,105 @@
+package org.example.kmeans;
+
+import org.example.data.PointStore;
+
+/**
+ * 모든 중심점과의 거리를 계산하는 기본 할당 방식.
+ * 포인트를 블록 단위로 차원별 열 배열에 복사한 뒤, 중심점마다 차원을 하나씩 더해 가며 블록 전체의 거리 제곱을 구한다.
+ * 안쪽 루프가 항상 연속된 포인트를 훑으므로 차원 수와 무관하게 JIT 가 벡터화할 수 있다.
+ * 블록 크기는 열 배열이 L1/L2 캐시에 머무르도록 차원 수에 반비례하게 정한다.
+ */
+class LloydAssigner implements Assigner {
+
+    private static final int BLOCK_DOUBLES = 1 << 13;
+
+    final PointStore points;
+    final int k;
+    final int dimensions;
+    final int blockSize;
+    double[][] centroids;
+
+    LloydAssigner(PointStore points, int k) {
+        this.points = points;
+        this.k = k;
+        this.dimensions = points.dimensions();
+        this.blockSize = Math.max(64, Math.min(1024, BLOCK_DOUBLES / dimensions));
+    }
+
+    @Override
+    public void prepare(double[][] centroids) {
+        this.centroids = centroids;
+    }
+
+    @Override
+    public int assign(int start, int end, double[] sums, int[] counts) {
+        double[][] columns = new double[dimensions][blockSize];
+        double[] distances = new double[blockSize];
+        double[] minDistances = new double[blockSize];
+        int[] closest = new int[blockSize];
+        int changed = 0;
+        for (int blockStart = start; blockStart < end; blockStart += blockSize) {
+            int length = Math.min(blockSize, end - blockStart);
+            for (int d = 0; d < dimensions; d++) {
+                points.copyColumn(d, blockStart, length, columns[d]);
+            }
+            closest(columns, length, distances, minDistances, closest);
+            changed += accumulate(blockStart, length, columns, closest, sums, counts);
+        }
+        return changed;
+    }
+
+    void closest(double[][] columns, int length, double[] distances, double[] minDistances, int[] closest) {
+        closestFrom(0, columns, length, distances, minDistances, closest);
+    }
+
+    /**
+     * from 부터 length 까지의 포인트에 대해 가장 가까운 중심점을 구한다. 동점이면 작은 인덱스가 이긴다.
+     */
+    final void closestFrom(int from, double[][] columns, int length, double[] distances, double[] minDistances,
+                           int[] closest) {
+        for (int i = from; i < length; i++) {
+            minDistances[i] = Double.MAX_VALUE;
+            closest[i] = 0;
+        }
+        for (int j = 0; j < k; j++) {
+            double[] centroid = centroids[j];
+            for (int i = from; i < length; i++) {
+                distances[i] = 0;
+            }
+            for (int d = 0; d < dimensions; d++) {
+                double[] column = columns[d];
+                double c = centroid[d];
+                for (int i = from; i < length; i++) {
+                    double diff = column[i] - c;
+                    distances[i] += diff * diff;
+                }
+            }
+            for (int i = from; i < length; i++) {
+                if (distances[i] < minDistances[i]) {
+                    minDistances[i] = distances[i];
+                    closest[i] = j;
+                }
+            }
+        }
+    }
+
+    private int accumulate(int blockStart, int length, double[][] columns, int[] closest,
+                           double[] sums, int[] counts) {
+        int changed = 0;
+        for (int i = 0; i < length; i++) {
+            int closestCluster = closest[i];
+            if (points.label(blockStart + i) != closestCluster) {
+                points.setLabel(blockStart + i, closestCluster);
+                changed++;
+            }
+            counts[closestCluster]++;
+        }
+        for (int d = 0; d < dimensions; d++) {
+            double[] column = columns[d];
+            for (int i = 0; i < length; i++) {
+                sums[closest[i] * dimensions + d] += column[i];
+            }
+        }
+        return changed;
+    }
+}
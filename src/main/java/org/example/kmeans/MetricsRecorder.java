@@ -0,0 +1,83 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 모든 반복의 측정값을 모아 CSV 또는 JSON 으로 내보내는 리스너. 여러 엔진에 같이 등록할 수 있다.
+ */
+public class MetricsRecorder implements IterationListener {
+
+    private static final String[] COLUMNS = {
+        "engine", "iteration", "assignNanos", "reduceNanos", "sendNanos", "receiveNanos", "serializeNanos",
+        "inertia", "changed", "bytesSent", "bytesReceived", "allocatedBytes"
+    };
+
+    private final List<IterationMetrics> iterations = new ArrayList<>();
+
+    @Override
+    public synchronized void onIteration(IterationMetrics metrics) {
+        iterations.add(metrics);
+    }
+
+    public synchronized List<IterationMetrics> getIterations() {
+        return Collections.unmodifiableList(new ArrayList<>(iterations));
+    }
+
+    public synchronized void writeCsv(Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\n");
+        for (IterationMetrics metrics : iterations) {
+            Object[] values = values(metrics);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(",");
+                }
+                writer.write(String.valueOf(values[i]));
+            }
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * 반복마다 하나의 객체를 담은 JSON 배열. 알 수 없는 inertia 는 null 로 기록한다.
+     */
+    public synchronized void writeJson(Writer writer) throws IOException {
+        writer.write("[");
+        for (int m = 0; m < iterations.size(); m++) {
+            Object[] values = values(iterations.get(m));
+            writer.write(m == 0 ? "\n  {" : ",\n  {");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writer.write("\"" + COLUMNS[i] + "\": " + json(values[i]));
+            }
+            writer.write("}");
+        }
+        writer.write("\n]\n");
+        writer.flush();
+    }
+
+    private static Object[] values(IterationMetrics metrics) {
+        return new Object[] {
+            metrics.engine, metrics.iteration, metrics.assignNanos, metrics.reduceNanos, metrics.sendNanos,
+            metrics.receiveNanos, metrics.serializeNanos, metrics.inertia, metrics.changed, metrics.bytesSent,
+            metrics.bytesReceived, metrics.allocatedBytes
+        };
+    }
+
+    private static String json(Object value) {
+        if (value instanceof String) {
+            return "\"" + value + "\"";
+        }
+        if (value instanceof Double && !Double.isFinite((Double)value)) {
+            return "null";
+        }
+        return String.valueOf(value);
+    }
+}
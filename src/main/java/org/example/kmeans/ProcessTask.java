@@ -1,57 +1,69 @@
 package org.example.kmeans;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 
+import org.example.data.ArrayPointStore;
+import org.example.data.PointStore;
+
+/**
+ * 멀티 프로세스 워커. 드라이버와의 연결이 닫힐 때까지 살아 있으면서 여러 작업(JOB)을 차례로 처리한다.
+ * 인자는 드라이버 포트와 워커 번호이다.
+ */
 public class ProcessTask {
 
     public static void main(String[] args) {
-        int k = Integer.parseInt(args[0]);
-        int port = Integer.parseInt(args[1]);
-        double[][] dataPointsSlice;
-
-        try (Socket socket = new Socket("localhost", port);
-             ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-             ObjectInputStream in = new ObjectInputStream(socket.getInputStream())) {
-            dataPointsSlice = (double[][])in.readObject();
+        int port = Integer.parseInt(args[0]);
+        int id = Integer.parseInt(args[1]);
 
-            while (true) {
-                double[][] centroids = (double[][])in.readObject();
+        try (FrameChannel channel = new FrameChannel(
+            SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port)))) {
+            // 워커들이 동시에 뜨므로 연결 순서가 아니라 번호로 자리를 찾게 한다.
+            channel.writeHello(id);
+            PointStore points = null;
+            Assigner assigner = null;
+            double[] sums = null;
+            int[] counts = null;
 
-                double[] processedResults = performClustering(dataPointsSlice, centroids, k);
-                out.writeObject(processedResults);
+            int type;
+            while ((type = channel.readType()) != -1) {
+                if (type == FrameChannel.PING) {
+                    channel.readRequest();
+                    channel.writePing();
+                } else if (type == FrameChannel.JOB) {
+                    FrameChannel.Job job = channel.readJob();
+                    channel.expect(FrameChannel.POINTS);
+                    points = new ArrayPointStore(channel.readPoints());
+                    assigner = Assigner.create(job.algorithm, points, job.k);
+                    sums = new double[job.k * points.dimensions()];
+                    counts = new int[job.k];
+                } else if (type == FrameChannel.CENTROIDS && assigner != null) {
+                    double[][] centroids = channel.readCentroids();
+                    int changed = performClustering(points, assigner, centroids, sums, counts);
+                    channel.writePartials(sums, counts, changed);
+                } else if (type == FrameChannel.RESTORE && points != null) {
+                    channel.readLabels(points, 0, points.size());
+                } else if (type == FrameChannel.LABELS && points != null) {
+                    // 레이블은 워커가 소유하고 마지막에 한 번만 돌려준다.
+                    channel.readRequest();
+                    channel.writeLabels(points);
+                } else {
+                    throw new IOException("Unexpected frame " + type);
+                }
             }
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private static double[] performClustering(double[][] dataPointsSlice, double[][] centroids, int k) {
-        double[] result = new double[dataPointsSlice.length];
-        for (int i = 0;  i < dataPointsSlice.length; i++) {
-            result[i] = findClosestCluster(dataPointsSlice[i], centroids, k);
-        }
-        return result;
-    }
-
-    private static int findClosestCluster(double[] point, double[][] centroids, int k) {
-        int closestCluster = 0;
-        double minDistance = Double.MAX_VALUE;
-
-        for (int j = 0; j < k; j++) {
-            double distance = calculateDistance(point, centroids[j]);
-            if (distance < minDistance) {
-                closestCluster = j;
-                minDistance = distance;
-            }
-        }
-
-        return closestCluster;
-    }
-
-    private static double calculateDistance(double[] point, double[] centroid) {
-        return Math.sqrt(Math.pow(point[0] - centroid[0], 2) + Math.pow(point[1] - centroid[1], 2));
+    private static int performClustering(PointStore points, Assigner assigner, double[][] centroids,
+        double[] sums, int[] counts) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+        assigner.prepare(centroids);
+        return assigner.assign(0, points.size(), sums, counts);
     }
 }
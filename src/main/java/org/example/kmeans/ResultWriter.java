@@ -0,0 +1,180 @@
+package org.example.kmeans;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.example.data.ChannelIO;
+import org.example.data.PointStore;
+
+/**
+ * {@link ClusteringResult} 를 파일로 내보낸다. 경로가 .bin 으로 끝나면 little-endian 바이너리로, 아니면 CSV 로 쓴다.
+ * <pre>
+ * 레이블   CSV: 입력 순서대로 한 줄에 레이블 하나
+ *          bin: magic(int)='KMLB' count(int) labels(int)[count]
+ * 클러스터 CSV: cluster,size,inertia,radius,c0..c(d-1) 헤더 뒤 클러스터마다 한 줄 (cluster 는 레이블과 같은 0 부터의 번호)
+ *          bin: magic(int)='KMCS' k(int) d(int) 그리고 클러스터마다 size(int) inertia(double) radius(double) centroid(double)[d]
+ * </pre>
+ * 레이블은 저장소에서 고정 크기 청크 단위로 여러 스레드가 바로 변환하므로 전체 복사본을 만들지 않는다.
+ * 바이너리는 청크가 자기 위치에 바로 쓰고, CSV 는 청크별 바이트 배열을 순서대로 이어 쓰되 스레드 수의 두 배까지만 미리 만든다.
+ */
+public final class ResultWriter {
+
+    private static final int LABELS_MAGIC = 0x4B4D4C42;
+    private static final int CLUSTERS_MAGIC = 0x4B4D4353;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private ResultWriter() {
+    }
+
+    public static void writeLabels(ClusteringResult result, Path path, int threads) throws IOException {
+        PointStore points = result.getPoints();
+        if (points == null) {
+            throw new IOException("Result has no point labels to write to " + path);
+        }
+        createParent(path);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (path.toString().endsWith(".bin")) {
+                writeBinaryLabels(points, channel, executor);
+            } else {
+                writeCsvLabels(points, channel, executor, Math.max(1, threads));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 중심점과 클러스터별 크기, inertia, radius 를 쓴다. 통계가 아직 없으면 threads 개의 스레드로 계산한다.
+     */
+    public static void writeClusters(ClusteringResult result, Path path, int threads) throws IOException {
+        createParent(path);
+        result.computeStats(threads);
+        int k = result.getClusters();
+        int dimensions = result.getDimensions();
+        if (path.toString().endsWith(".bin")) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 3
+                + k * (Integer.BYTES + Double.BYTES * (2 + dimensions))).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(CLUSTERS_MAGIC).putInt(k).putInt(dimensions);
+            for (int c = 0; c < k; c++) {
+                buffer.putInt(result.getSize(c)).putDouble(result.getInertia(c)).putDouble(result.getRadius(c));
+                for (double value : result.getCentroid(c)) {
+                    buffer.putDouble(value);
+                }
+            }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                ChannelIO.write(channel, buffer, 0);
+            }
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("cluster,size,inertia,radius");
+            for (int d = 0; d < dimensions; d++) {
+                writer.write(",c" + d);
+            }
+            writer.write("\n");
+            for (int c = 0; c < k; c++) {
+                StringBuilder line = new StringBuilder();
+                line.append(c).append(',').append(result.getSize(c)).append(',')
+                    .append(result.getInertia(c)).append(',').append(result.getRadius(c));
+                for (double value : result.getCentroid(c)) {
+                    line.append(',').append(value);
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+    }
+
+    private static void writeBinaryLabels(PointStore points, FileChannel channel, ExecutorService executor)
+        throws IOException {
+        int size = points.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LABELS_MAGIC).putInt(size).flip();
+        ChannelIO.write(channel, header, 0);
+        Deque<Future<?>> pending = new ArrayDeque<>();
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(size, start + CHUNK_SIZE);
+            pending.add(executor.submit(() -> {
+                ByteBuffer buffer = ByteBuffer.allocate((to - from) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = from; i < to; i++) {
+                    buffer.putInt(points.label(i));
+                }
+                buffer.flip();
+                ChannelIO.write(channel, buffer, HEADER_BYTES + (long)from * Integer.BYTES);
+                return null;
+            }));
+        }
+        while (!pending.isEmpty()) {
+            ChannelIO.await(pending.poll(), "writing results");
+        }
+    }
+
+    private static void writeCsvLabels(PointStore points, FileChannel channel, ExecutorService executor, int threads)
+        throws IOException {
+        int size = points.size();
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        long position = 0;
+        int next = 0;
+        while (next < size || !pending.isEmpty()) {
+            while (next < size && pending.size() < threads * 2) {
+                int from = next;
+                int to = Math.min(size, next + CHUNK_SIZE);
+                pending.add(executor.submit(() -> formatLabels(points, from, to)));
+                next = to;
+            }
+            byte[] bytes = ChannelIO.await(pending.poll(), "writing results");
+            position += ChannelIO.write(channel, ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    /**
+     * 레이블을 문자열 객체 없이 바로 ASCII 숫자로 쓴다.
+     */
+    private static byte[] formatLabels(PointStore points, int start, int end) {
+        byte[] bytes = new byte[(end - start) * 12];
+        byte[] digits = new byte[10];
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            int label = points.label(i);
+            if (label < 0) {
+                bytes[size++] = '-';
+                label = -label;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte)('0' + label % 10);
+                label /= 10;
+            } while (label > 0);
+            while (n > 0) {
+                bytes[size++] = digits[--n];
+            }
+            bytes[size++] = '\n';
+        }
+        byte[] result = new byte[size];
+        System.arraycopy(bytes, 0, result, 0, size);
+        return result;
+    }
+
+    private static void createParent(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
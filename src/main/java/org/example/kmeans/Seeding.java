@@ -0,0 +1,308 @@
+package org.example.kmeans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.example.data.PointStore;
+
+/**
+ * 초기 중심점 선택.
+ * <ul>
+ *   <li>first: 처음 k 개의 포인트 (기존 동작)</li>
+ *   <li>kmeans++: 가장 가까운 중심점까지 거리의 제곱에 비례하는 확률로 하나씩 뽑는다 (Arthur &amp; Vassilvitskii).</li>
+ *   <li>kmeans||: 라운드마다 약 2k 개의 후보를 독립적으로 과표본 추출한 뒤,
+ *       가까운 포인트 수로 가중한 후보들을 k 개로 다시 클러스터링한다 (Bahmani et al.).</li>
+ * </ul>
+ * 거리 갱신과 과표본 추출은 고정 크기 청크 단위로 여러 스레드에서 나누어 처리한다.
+ * 과표본 추출은 시드에서 만든 난수 생성기를 라운드마다, 그리고 청크 순서대로 split 한 독립 난수열을 쓰므로
+ * 결과는 스레드 수와 무관하게 재현된다. 청크 작업에서 난 예외는 모든 청크가 끝난 뒤 호출한 쪽으로 다시 던진다.
+ */
+public final class Seeding {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int ROUNDS = 5;
+    private static final int CANDIDATE_ITERATIONS = 10;
+
+    private final PointStore points;
+    private final int k;
+    private final long seed;
+    private final int chunks;
+    private final double[] minDistances;
+    private final double[] chunkCosts;
+    private ExecutorService executor;
+
+    private Seeding(PointStore points, int k, long seed) {
+        this.points = points;
+        this.k = k;
+        this.seed = seed;
+        this.chunks = (points.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.minDistances = new double[points.size()];
+        this.chunkCosts = new double[chunks];
+    }
+
+    public static double[][] seed(String method, PointStore points, int k, long seed, int threads)
+        throws InterruptedException {
+        Centroids.checkCount(points, k);
+        switch (method) {
+            case "first":
+                return Centroids.initial(points, k);
+            case "kmeans++":
+            case "kmeans||":
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown init method: " + method);
+        }
+
+        Seeding seeding = new Seeding(points, k, seed);
+        seeding.executor = Executors.newFixedThreadPool(threads);
+        try {
+            return "kmeans++".equals(method) ? seeding.kMeansPlusPlus() : seeding.kMeansParallel();
+        } finally {
+            seeding.executor.shutdown();
+        }
+    }
+
+    private double[][] kMeansPlusPlus() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] centroids = new double[k][];
+        centroids[0] = point(random.nextInt(points.size()));
+        resetDistances(centroids[0]);
+
+        for (int j = 1; j < k; j++) {
+            int index = sampleByCost(random.nextDouble() * totalCost());
+            centroids[j] = point(index);
+            double[][] added = {centroids[j]};
+            parallelForChunks(chunk -> updateDistances(chunk, added));
+        }
+        return centroids;
+    }
+
+    private double[][] kMeansParallel() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<double[]> candidates = new ArrayList<>();
+        candidates.add(point(random.nextInt(points.size())));
+        resetDistances(candidates.get(0));
+
+        double oversampling = 2.0 * k;
+        for (int round = 0; round < ROUNDS; round++) {
+            double cost = totalCost();
+            if (cost == 0) {
+                break;
+            }
+            List<List<double[]>> sampled = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                sampled.add(new ArrayList<>());
+            }
+            SplittableRandom[] chunkRandoms = new SplittableRandom[chunks];
+            for (int c = 0; c < chunks; c++) {
+                chunkRandoms[c] = random.split();
+            }
+            parallelForChunks(chunk -> {
+                SplittableRandom chunkRandom = chunkRandoms[chunk];
+                int end = Math.min(points.size(), (chunk + 1) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    if (chunkRandom.nextDouble() < oversampling * minDistances[i] / cost) {
+                        sampled.get(chunk).add(point(i));
+                    }
+                }
+            });
+
+            List<double[]> added = new ArrayList<>();
+            sampled.forEach(added::addAll);
+            if (added.isEmpty()) {
+                continue;
+            }
+            candidates.addAll(added);
+            double[][] newCandidates = added.toArray(new double[0][]);
+            parallelForChunks(chunk -> updateDistances(chunk, newCandidates));
+        }
+
+        while (candidates.size() < k) {
+            candidates.add(point(random.nextInt(points.size())));
+        }
+        double[][] candidateArray = candidates.toArray(new double[0][]);
+        return reduceCandidates(candidateArray, candidateWeights(candidateArray), random);
+    }
+
+    /**
+     * 각 후보에 가장 가까운 포인트 수를 센다.
+     */
+    private long[] candidateWeights(double[][] candidates) throws InterruptedException {
+        long[][] chunkWeights = new long[chunks][];
+        parallelForChunks(chunk -> {
+            long[] weights = new long[candidates.length];
+            double[] point = new double[points.dimensions()];
+            int end = Math.min(points.size(), (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                points.copyPoint(i, point);
+                weights[Distances.closest(point, candidates)]++;
+            }
+            chunkWeights[chunk] = weights;
+        });
+        long[] weights = new long[candidates.length];
+        for (long[] chunkWeight : chunkWeights) {
+            for (int c = 0; c < weights.length; c++) {
+                weights[c] += chunkWeight[c];
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * 가중 후보들에 가중 k-means++ 와 몇 번의 가중 Lloyd 반복을 적용하여 k 개의 중심점을 만든다.
+     */
+    private double[][] reduceCandidates(double[][] candidates, long[] weights, SplittableRandom random) {
+        int m = candidates.length;
+        double[][] centroids = new double[k][];
+        double[] distances = new double[m];
+        centroids[0] = candidates[sampleWeighted(weights, null, random)].clone();
+        for (int c = 0; c < m; c++) {
+            distances[c] = Distances.squared(candidates[c], centroids[0]);
+        }
+        for (int j = 1; j < k; j++) {
+            centroids[j] = candidates[sampleWeighted(weights, distances, random)].clone();
+            for (int c = 0; c < m; c++) {
+                distances[c] = Math.min(distances[c], Distances.squared(candidates[c], centroids[j]));
+            }
+        }
+
+        int dimensions = points.dimensions();
+        for (int iteration = 0; iteration < CANDIDATE_ITERATIONS; iteration++) {
+            double[] sums = new double[k * dimensions];
+            double[] totals = new double[k];
+            for (int c = 0; c < m; c++) {
+                int cluster = Distances.closest(candidates[c], centroids);
+                for (int d = 0; d < dimensions; d++) {
+                    sums[cluster * dimensions + d] += weights[c] * candidates[c][d];
+                }
+                totals[cluster] += weights[c];
+            }
+            for (int j = 0; j < k; j++) {
+                if (totals[j] > 0) {
+                    for (int d = 0; d < dimensions; d++) {
+                        centroids[j][d] = sums[j * dimensions + d] / totals[j];
+                    }
+                }
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * weight * distance 에 비례하는 확률로 후보 하나를 고른다. distances 가 null 이면 weight 만 사용한다.
+     */
+    private static int sampleWeighted(long[] weights, double[] distances, SplittableRandom random) {
+        double total = 0;
+        for (int c = 0; c < weights.length; c++) {
+            total += weights[c] * (distances == null ? 1 : distances[c]);
+        }
+        if (total == 0) {
+            return random.nextInt(weights.length);
+        }
+        double target = random.nextDouble() * total;
+        for (int c = 0; c < weights.length; c++) {
+            target -= weights[c] * (distances == null ? 1 : distances[c]);
+            if (target < 0) {
+                return c;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private void resetDistances(double[] centroid) throws InterruptedException {
+        parallelForChunks(chunk -> {
+            double cost = 0;
+            double[] point = new double[points.dimensions()];
+            int end = Math.min(points.size(), (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                points.copyPoint(i, point);
+                minDistances[i] = Distances.squared(point, centroid);
+                cost += minDistances[i];
+            }
+            chunkCosts[chunk] = cost;
+        });
+    }
+
+    private void updateDistances(int chunk, double[][] added) {
+        double cost = 0;
+        double[] point = new double[points.dimensions()];
+        int end = Math.min(points.size(), (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            points.copyPoint(i, point);
+            double distance = minDistances[i];
+            for (double[] centroid : added) {
+                distance = Math.min(distance, Distances.squared(point, centroid));
+            }
+            minDistances[i] = distance;
+            cost += distance;
+        }
+        chunkCosts[chunk] = cost;
+    }
+
+    private double totalCost() {
+        double total = 0;
+        for (double cost : chunkCosts) {
+            total += cost;
+        }
+        return total;
+    }
+
+    /**
+     * 누적 비용이 target 을 넘는 포인트를 찾는다. 청크별 비용으로 청크를 먼저 고른 뒤 그 청크만 훑는다.
+     */
+    private int sampleByCost(double target) {
+        int chunk = 0;
+        while (chunk < chunks - 1 && target >= chunkCosts[chunk]) {
+            target -= chunkCosts[chunk];
+            chunk++;
+        }
+        int end = Math.min(points.size(), (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            target -= minDistances[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return end - 1;
+    }
+
+    private void parallelForChunks(ChunkTask task) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(chunks);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            executor.submit(() -> {
+                try {
+                    task.run(chunk);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException)t;
+        }
+        if (t instanceof Error) {
+            throw (Error)t;
+        }
+    }
+
+    private double[] point(int index) {
+        double[] point = new double[points.dimensions()];
+        points.copyPoint(index, point);
+        return point;
+    }
+
+    private interface ChunkTask {
+        void run(int chunk);
+    }
+}
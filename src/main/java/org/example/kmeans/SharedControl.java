@@ -0,0 +1,235 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+import org.example.data.ChannelIO;
+import org.example.data.PointStore;
+
+/**
+ * 공유 메모리 멀티 프로세스 모드의 제어 영역.
+ * 드라이버와 SharedMemoryTask 가 같은 파일을 매핑하여 중심점과 부분 결과를 주고받는다.
+ *
+ * <pre>
+ * 0   generation(long)  드라이버가 새 작업을 게시할 때마다 1 씩 증가
+ * 8   command(long)     RUN 또는 EXIT
+ * 64  centroids         coordinates(double)[k*d]
+ * ... worker slot[p]    done(long) changed(long) sums(double)[k*d] counts(long)[k]
+ * ... labels            label(int)[n], EXIT 시 각 워커가 자기 구간을 기록 (이어서 실행하면 드라이버가 시작 레이블을 먼저 기록)
+ * </pre>
+ * 값을 모두 쓴 뒤 generation/done 을 release 로 기록하고 반대편은 acquire 로 읽어 순서를 보장한다.
+ */
+final class SharedControl {
+
+    static final long RUN = 1;
+    static final long EXIT = 2;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int GENERATION = 0;
+    private static final int COMMAND = 8;
+    private static final int CENTROIDS = 64;
+    private static final int SPINS = 1000;
+    private static final long PARK_NANOS = 20_000;
+
+    private static final int PARENT_CHECK_PARKS = 1000;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int k;
+    private final int dimensions;
+    private final int slotsOffset;
+    private final int slotBytes;
+    private final long labelsOffset;
+
+    private SharedControl(FileChannel channel, int k, int dimensions, int processes) throws IOException {
+        this.channel = channel;
+        this.k = k;
+        this.dimensions = dimensions;
+        this.slotsOffset = align(CENTROIDS + k * dimensions * Double.BYTES);
+        this.slotBytes = align(Long.BYTES * 2 + k * dimensions * Double.BYTES + k * Long.BYTES);
+        this.labelsOffset = slotsOffset + (long)slotBytes * processes;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, labelsOffset);
+        this.buffer.order(ByteOrder.nativeOrder());
+    }
+
+    static SharedControl create(Path path, int k, int dimensions, int processes) throws IOException {
+        return new SharedControl(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), k, dimensions, processes);
+    }
+
+    static SharedControl open(Path path, int k, int dimensions, int processes) throws IOException {
+        return new SharedControl(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE), k,
+            dimensions, processes);
+    }
+
+    /**
+     * 드라이버: 중심점과 명령을 쓰고 새 generation 을 게시한다.
+     */
+    long publish(long command, double[][] centroids) {
+        for (int j = 0; j < k; j++) {
+            for (int d = 0; d < dimensions; d++) {
+                buffer.putDouble(CENTROIDS + (j * dimensions + d) * Double.BYTES, centroids[j][d]);
+            }
+        }
+        buffer.putLong(COMMAND, command);
+        long generation = (long)LONG.getAcquire(buffer, GENERATION) + 1;
+        LONG.setRelease(buffer, GENERATION, generation);
+        return generation;
+    }
+
+    /**
+     * 워커: seen 보다 새로운 generation 이 게시될 때까지 기다린다. 그 사이 드라이버가 사라지면 실패한다.
+     */
+    long awaitGeneration(long seen, ProcessHandle driver) throws IOException {
+        int spins = 0;
+        int parks = 0;
+        long generation;
+        while ((generation = (long)LONG.getAcquire(buffer, GENERATION)) <= seen) {
+            spins = backoff(spins);
+            if (spins == SPINS && ++parks % PARENT_CHECK_PARKS == 0 && !driver.isAlive()) {
+                throw new IOException("Driver process exited");
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * publish 가 쓰는 중심점 영역의 크기.
+     */
+    int centroidBytes() {
+        return k * dimensions * Double.BYTES;
+    }
+
+    /**
+     * 워커 하나가 complete 로 쓰는 슬롯의 크기.
+     */
+    int slotBytes() {
+        return slotBytes;
+    }
+
+    long command() {
+        return buffer.getLong(COMMAND);
+    }
+
+    double[][] readCentroids() {
+        double[][] centroids = new double[k][dimensions];
+        for (int j = 0; j < k; j++) {
+            for (int d = 0; d < dimensions; d++) {
+                centroids[j][d] = buffer.getDouble(CENTROIDS + (j * dimensions + d) * Double.BYTES);
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * 워커: 부분 결과를 자기 슬롯에 쓰고 generation 처리를 완료했다고 알린다.
+     */
+    void complete(int worker, long generation, double[] sums, int[] counts, long changed) {
+        int slot = slotsOffset + worker * slotBytes;
+        buffer.putLong(slot + Long.BYTES, changed);
+        int sumsOffset = slot + Long.BYTES * 2;
+        int countsOffset = sumsOffset + k * dimensions * Double.BYTES;
+        for (int j = 0; j < k * dimensions; j++) {
+            buffer.putDouble(sumsOffset + j * Double.BYTES, sums[j]);
+        }
+        for (int j = 0; j < k; j++) {
+            buffer.putLong(countsOffset + j * Long.BYTES, counts[j]);
+        }
+        LONG.setRelease(buffer, slot, generation);
+    }
+
+    /**
+     * 드라이버: 워커가 generation 을 끝낼 때까지 기다린다. 기다리는 동안 워커 프로세스가 죽으면 실패한다.
+     */
+    void awaitCompletion(int worker, long generation, Process process) throws IOException {
+        int slot = slotsOffset + worker * slotBytes;
+        int spins = 0;
+        while ((long)LONG.getAcquire(buffer, slot) < generation) {
+            if (!process.isAlive()) {
+                throw new IOException("Worker " + worker + " exited with code " + process.exitValue());
+            }
+            spins = backoff(spins);
+        }
+    }
+
+    /**
+     * 드라이버: 워커 슬롯의 부분 결과를 sums, counts 에 더하고 바뀐 레이블 수를 반환한다.
+     */
+    long accumulate(int worker, double[] sums, int[] counts) {
+        int slot = slotsOffset + worker * slotBytes;
+        int sumsOffset = slot + Long.BYTES * 2;
+        int countsOffset = sumsOffset + k * dimensions * Double.BYTES;
+        for (int j = 0; j < k * dimensions; j++) {
+            sums[j] += buffer.getDouble(sumsOffset + j * Double.BYTES);
+        }
+        for (int j = 0; j < k; j++) {
+            counts[j] += (int)buffer.getLong(countsOffset + j * Long.BYTES);
+        }
+        return buffer.getLong(slot + Long.BYTES);
+    }
+
+    /**
+     * points 의 레이블을 labels 영역의 start 위치부터 기록한다. 워커는 자기 구간을, 드라이버는 시작 레이블 전체를 쓴다.
+     */
+    void writeLabels(PointStore points, int start) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.nativeOrder());
+        long position = labelsOffset + (long)start * Integer.BYTES;
+        int size = points.size();
+        for (int i = 0; i < size; i++) {
+            if (!chunk.hasRemaining()) {
+                position += ChannelIO.drain(channel, chunk, position);
+            }
+            chunk.putInt(points.label(i));
+        }
+        ChannelIO.drain(channel, chunk, position);
+    }
+
+    /**
+     * labels 영역의 start 위치부터 points.size() 개를 읽어 points 에 반영한다.
+     * 드라이버는 실행이 끝난 뒤 전체를, 워커는 시작할 때 자기 구간을 읽는다.
+     */
+    void readLabels(PointStore points, int start) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.nativeOrder());
+        long position = labelsOffset + (long)start * Integer.BYTES;
+        int size = points.size();
+        int i = 0;
+        while (i < size) {
+            chunk.clear();
+            chunk.limit(Math.min(chunk.capacity(), (size - i) * Integer.BYTES));
+            ChannelIO.readFully(channel, chunk, position);
+            chunk.flip();
+            position += chunk.remaining();
+            while (chunk.hasRemaining()) {
+                points.setLabel(i++, chunk.getInt());
+            }
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 잠깐은 바쁜 대기로 지연을 줄이고, 그 뒤로는 짧게 잠들어 코어를 양보한다.
+     */
+    private static int backoff(int spins) {
+        if (spins < SPINS) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return spins;
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 63) & ~63;
+    }
+}
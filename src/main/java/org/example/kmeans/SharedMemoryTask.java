@@ -0,0 +1,65 @@
+package org.example.kmeans;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.example.data.PointFile;
+import org.example.data.PointStore;
+
+/**
+ * 공유 메모리 멀티 프로세스 모드의 워커.
+ * 데이터 파일에서 자기 구간만 읽기 전용으로 매핑하고, 제어 영역을 통해 중심점을 받아 부분 결과를 돌려준다.
+ */
+public class SharedMemoryTask {
+
+    public static void main(String[] args) {
+        Path dataPath = Path.of(args[0]);
+        Path controlPath = Path.of(args[1]);
+        int worker = Integer.parseInt(args[2]);
+        int processes = Integer.parseInt(args[3]);
+        int start = Integer.parseInt(args[4]);
+        int end = Integer.parseInt(args[5]);
+        int k = Integer.parseInt(args[6]);
+        String algorithm = args[7];
+        boolean restoreLabels = Boolean.parseBoolean(args[8]);
+
+        SharedControl control = null;
+        try {
+            ProcessHandle driver = ProcessHandle.current().parent().orElseThrow();
+            PointStore points = PointFile.map(dataPath, start, end);
+            control = SharedControl.open(controlPath, k, points.dimensions(), processes);
+            if (restoreLabels) {
+                control.readLabels(points, start);
+            }
+            Assigner assigner = Assigner.create(algorithm, points, k);
+            double[] sums = new double[k * points.dimensions()];
+            int[] counts = new int[k];
+
+            long generation = 0;
+            while (true) {
+                generation = control.awaitGeneration(generation, driver);
+                if (control.command() == SharedControl.EXIT) {
+                    control.writeLabels(points, start);
+                    control.complete(worker, generation, sums, counts, 0);
+                    break;
+                }
+                Arrays.fill(sums, 0);
+                Arrays.fill(counts, 0);
+                assigner.prepare(control.readCentroids());
+                int changed = assigner.assign(0, points.size(), sums, counts);
+                control.complete(worker, generation, sums, counts, changed);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            if (control != null) {
+                try {
+                    control.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
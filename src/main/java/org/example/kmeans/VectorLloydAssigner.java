@@ -0,0 +1,48 @@
+package org.example.kmeans;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.example.data.PointStore;
+
+/**
+ * jdk.incubator.vector 로 한 번에 레인 수만큼의 포인트를 모든 중심점과 비교하는 Lloyd 커널.
+ * 거리 제곱은 스칼라 커널과 같은 차원 순서로 더하므로 결과가 같다.
+ * {@link Kernels} 가 모듈이 있을 때만 리플렉션으로 생성한다. 나머지 꼬리 구간은 스칼라로 처리한다.
+ */
+final class VectorLloydAssigner extends LloydAssigner {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorLloydAssigner(PointStore points, int k) {
+        super(points, k);
+    }
+
+    @Override
+    void closest(double[][] columns, int length, double[] distances, double[] minDistances, int[] closest) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(length);
+        double[] clusters = new double[lanes];
+        for (int i = 0; i < bound; i += lanes) {
+            DoubleVector minDistance = DoubleVector.broadcast(SPECIES, Double.MAX_VALUE);
+            DoubleVector closestCluster = DoubleVector.zero(SPECIES);
+            for (int j = 0; j < k; j++) {
+                double[] centroid = centroids[j];
+                DoubleVector distance = DoubleVector.zero(SPECIES);
+                for (int d = 0; d < dimensions; d++) {
+                    DoubleVector diff = DoubleVector.fromArray(SPECIES, columns[d], i).sub(centroid[d]);
+                    distance = distance.add(diff.mul(diff));
+                }
+                VectorMask<Double> closer = distance.compare(VectorOperators.LT, minDistance);
+                minDistance = minDistance.blend(distance, closer);
+                closestCluster = closestCluster.blend(j, closer);
+            }
+            closestCluster.intoArray(clusters, 0);
+            for (int lane = 0; lane < lanes; lane++) {
+                closest[i + lane] = (int) clusters[lane];
+            }
+        }
+        closestFrom(bound, columns, length, distances, minDistances, closest);
+    }
+}
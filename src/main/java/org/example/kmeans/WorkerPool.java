@@ -0,0 +1,253 @@
+package org.example.kmeans;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 한 번 띄운 ProcessTask 워커를 여러 작업에 재사용하는 풀.
+ * 워커는 JVM 기동과 JIT 예열 비용을 처음 한 번만 치르며, 연결이 닫힐 때까지 JOB 프레임을 계속 받는다.
+ * {@link #checkHealth()} 는 죽었거나 PING 에 응답하지 않는 워커를 새로 띄운다.
+ * <p>
+ * 워커 프로세스는 한꺼번에 띄운 뒤 연결이 오는 대로 받으며, 워커가 처음 보내는 HELLO 프레임의 번호로 자리를 정한다.
+ * 따라서 기동 시간은 워커 수가 아니라 가장 느린 JVM 하나에 가깝다. 연결은 논블로킹으로 바꾸어 두어
+ * 드라이버가 한 스레드의 선택기로 모든 워커를 다룰 수 있다. 제한 시간 안에 HELLO 를 보내지 않은 워커가 있으면
+ * 띄우던 워커를 모두 정리하고 IOException 으로 실패한다.
+ */
+public class WorkerPool implements Closeable {
+
+    private static final long PING_TIMEOUT_MILLIS = 5000;
+    private static final long ACCEPT_POLL_MILLIS = 200;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 600_000;
+
+    private final ServerSocketChannel serverSocket;
+    private final Selector acceptSelector;
+    private final int port;
+    private final long timeoutMillis;
+    private final List<Worker> workers = new ArrayList<>();
+
+    public WorkerPool(int processes) throws IOException {
+        this(processes, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param timeoutMillis 워커가 연결해 HELLO 를 보낼 때까지, 그리고 연결에서 읽기/쓰기가 진행 없이 기다릴 최대 시간
+     */
+    public WorkerPool(int processes, long timeoutMillis) throws IOException {
+        this.timeoutMillis = timeoutMillis;
+        this.serverSocket = ServerSocketChannel.open();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), processes);
+        serverSocket.configureBlocking(false);
+        this.acceptSelector = Selector.open();
+        serverSocket.register(acceptSelector, SelectionKey.OP_ACCEPT);
+        this.port = ((InetSocketAddress)serverSocket.getLocalAddress()).getPort();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            workers.add(null);
+            indices.add(i);
+        }
+        try {
+            startWorkers(indices);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return workers.size();
+    }
+
+    Worker get(int index) {
+        return workers.get(index);
+    }
+
+    /**
+     * 모든 워커에 PING 을 보내고, 응답하지 않거나 이미 종료된 워커를 한꺼번에 다시 띄운다.
+     *
+     * @return 다시 띄운 워커 수
+     */
+    public int checkHealth() throws IOException {
+        List<Integer> unhealthy = new ArrayList<>();
+        for (int i = 0; i < workers.size(); i++) {
+            if (!isHealthy(workers.get(i))) {
+                workers.get(i).destroy();
+                unhealthy.add(i);
+            }
+        }
+        if (!unhealthy.isEmpty()) {
+            startWorkers(unhealthy);
+        }
+        return unhealthy.size();
+    }
+
+    Worker restart(int index) throws IOException {
+        workers.get(index).destroy();
+        startWorkers(List.of(index));
+        return workers.get(index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // 연결을 닫으면 워커는 스스로 종료한다.
+        for (Worker worker : workers) {
+            if (worker != null) {
+                worker.channel.close();
+            }
+        }
+        for (Worker worker : workers) {
+            if (worker == null) {
+                continue;
+            }
+            try {
+                if (!worker.process.waitFor(1, TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                worker.process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        acceptSelector.close();
+        serverSocket.close();
+    }
+
+    /**
+     * 현재 JVM 과 같은 java 실행 파일과 클래스패스로 mainClass 를 실행하는 명령.
+     */
+    static List<String> javaCommand(String mainClass) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Kernels.addJvmArguments(command);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass);
+        return command;
+    }
+
+    /**
+     * indices 자리의 워커를 모두 띄운 뒤, 연결이 오는 순서대로 받아 HELLO 의 번호에 맞는 자리에 넣는다.
+     * 연결하기 전에 종료되었거나 제한 시간 안에 HELLO 를 보내지 않은 워커가 있으면 나머지를 정리하고 실패한다.
+     */
+    private void startWorkers(List<Integer> indices) throws IOException {
+        Map<Integer, Process> starting = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int index : indices) {
+                List<String> command = javaCommand(ProcessTask.class.getName());
+                command.add(String.valueOf(port));
+                command.add(String.valueOf(index));
+                ProcessBuilder processBuilder = new ProcessBuilder(command);
+                processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                starting.put(index, processBuilder.start());
+            }
+            while (!starting.isEmpty()) {
+                if (acceptSelector.select(ACCEPT_POLL_MILLIS) == 0) {
+                    for (Map.Entry<Integer, Process> entry : starting.entrySet()) {
+                        if (!entry.getValue().isAlive()) {
+                            throw new IOException("Worker " + entry.getKey() + " exited before connecting");
+                        }
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        throw new IOException("Workers " + starting.keySet() + " did not connect within "
+                            + timeoutMillis + "ms");
+                    }
+                    continue;
+                }
+                acceptSelector.selectedKeys().clear();
+                SocketChannel socket;
+                while ((socket = serverSocket.accept()) != null) {
+                    accept(socket, starting, deadline);
+                }
+            }
+        } catch (IOException e) {
+            for (Process process : starting.values()) {
+                process.destroyForcibly();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * HELLO 는 논블로킹으로 deadline 까지만 기다린다. HELLO 를 읽지 못한 연결은 닫고 넘어가며,
+     * 그 연결의 워커는 startWorkers 의 제한 시간에 걸린다.
+     */
+    private void accept(SocketChannel socket, Map<Integer, Process> starting, long deadline) throws IOException {
+        FrameChannel channel = new FrameChannel(socket);
+        int index;
+        try {
+            channel.configureNonBlocking();
+            channel.setTimeout(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            channel.expect(FrameChannel.HELLO);
+            index = channel.readHello();
+        } catch (IOException e) {
+            System.err.println("Dropping worker connection without HELLO: " + e);
+            channel.close();
+            return;
+        }
+        Process process = starting.remove(index);
+        if (process == null) {
+            // 이미 정리한 워커의 늦은 연결
+            channel.close();
+            return;
+        }
+        channel.setTimeout(timeoutMillis);
+        workers.set(index, new Worker(process, channel));
+    }
+
+    private static boolean isHealthy(Worker worker) {
+        if (!worker.process.isAlive()) {
+            return false;
+        }
+        CompletableFuture<Void> ping = CompletableFuture.runAsync(() -> {
+            try {
+                worker.channel.writePing();
+                worker.channel.expect(FrameChannel.PING);
+                worker.channel.readRequest();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            ping.get(PING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static final class Worker {
+        final Process process;
+        final FrameChannel channel;
+
+        Worker(Process process, FrameChannel channel) {
+            this.process = process;
+            this.channel = channel;
+        }
+
+        void destroy() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelCsvLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parsesExponentsAndSigns() throws IOException {
+        Path path = write("1e3,-2.5E-2\n+3,-0\n.5,6.\n1.7976931348623157E308,4.9e-324\n-12345678901234567890,0.1\n");
+        double[][] columns = ParallelCsvLoader.load(path, 1);
+        assertArrayEquals(new double[] {1e3, 3, 0.5, Double.MAX_VALUE, -12345678901234567890.0}, columns[0]);
+        assertArrayEquals(new double[] {-2.5e-2, -0.0, 6, Double.MIN_VALUE, 0.1}, columns[1]);
+    }
+
+    @Test
+    void acceptsCrlfAndBlankLines() throws IOException {
+        Path path = write("1,2\r\n\r\n3,4\r\n\n5,6");
+        double[][] columns = ParallelCsvLoader.load(path, 2);
+        assertArrayEquals(new double[] {1, 3, 5}, columns[0]);
+        assertArrayEquals(new double[] {2, 4, 6}, columns[1]);
+    }
+
+    @Test
+    void splitsChunksInsideLines() throws IOException {
+        // 구간은 최소 1MB 이므로 몇 MB 를 써서 구간 경계가 줄 중간에 떨어지게 한다.
+        Random random = new Random(3);
+        int count = 150_000;
+        double[][] expected = new double[3][count];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            for (int d = 0; d < 3; d++) {
+                expected[d][i] = random.nextGaussian() * Math.pow(10, random.nextInt(7) - 3);
+                text.append(d == 0 ? "" : ",").append(expected[d][i]);
+            }
+            text.append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        Path path = write(text.toString());
+
+        double[][] columns = ParallelCsvLoader.load(path, 4);
+        for (int d = 0; d < 3; d++) {
+            assertArrayEquals(expected[d], columns[d]);
+        }
+        float[][] floats = ParallelCsvLoader.loadFloat(path, 4);
+        assertEquals(count, floats[0].length);
+        assertEquals((float)expected[2][count - 1], floats[2][count - 1]);
+    }
+
+    @Test
+    void rejectsEmptyFiles() throws IOException {
+        assertThrows(IOException.class, () -> ParallelCsvLoader.load(write(""), 2));
+        assertThrows(IOException.class, () -> ParallelCsvLoader.load(write("\n\r\n\n"), 2));
+    }
+
+    @Test
+    void rejectsWrongFieldCount() throws IOException {
+        assertThrows(IOException.class, () -> ParallelCsvLoader.load(write("1,2\n3\n5,6\n"), 2));
+        assertThrows(IOException.class, () -> ParallelCsvLoader.load(write("1,2\n3,4,5\n"), 2));
+    }
+
+    private Path write(String text) throws IOException {
+        Path path = Files.createTempFile(dir, "points", ".csv");
+        Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.kmeans;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.data.ArrayPointStore;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AssignerTest {
+
+    private static final int K = 5;
+    private static final int ITERATIONS = 15;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"hamerly", "kdtree"})
+    void matchesLloyd(String algorithm) {
+        ArrayPointStore lloydPoints = Fixtures.blobs(K, 200, 2, 7);
+        ClusteringResult lloyd = new KMeansSingleThread(lloydPoints, K, "lloyd").run(ITERATIONS);
+
+        ArrayPointStore points = Fixtures.blobs(K, 200, 2, 7);
+        ClusteringResult result = new KMeansSingleThread(points, K, algorithm).run(ITERATIONS);
+
+        assertArrayEquals(Checkpoint.labelsOf(lloydPoints), Checkpoint.labelsOf(points));
+        for (int j = 0; j < K; j++) {
+            assertEquals(lloyd.getSize(j), result.getSize(j));
+            assertArrayEquals(lloyd.getCentroid(j), result.getCentroid(j), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.kmeans;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.example.data.ArrayPointStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointTest {
+
+    private static final int K = 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeAndReadRoundTrip() throws IOException {
+        double[][] centroids = {{1.5, -2}, {3, 4.25}};
+        int[] labels = {0, 1, 1, 0, 1};
+        long[] seen = {7, 11};
+        Path path = dir.resolve("ck.bin");
+        new Checkpoint(centroids, 9, labels, seen).write(path);
+
+        Checkpoint read = Checkpoint.read(path);
+        assertEquals(9, read.getIteration());
+        assertArrayEquals(centroids, read.getCentroids());
+        assertArrayEquals(seen, read.getSeen());
+        ArrayPointStore points = new ArrayPointStore(new double[2][labels.length]);
+        assertTrue(read.restoreLabels(points));
+        assertArrayEquals(labels, Checkpoint.labelsOf(points));
+    }
+
+    @Test
+    void resumeMatchesStraightRun() throws IOException {
+        ArrayPointStore straightPoints = Fixtures.blobs(K, 500, 3, 1);
+        ClusteringResult straight = new KMeansSingleThread(straightPoints, K).run(20);
+
+        ArrayPointStore firstPoints = Fixtures.blobs(K, 500, 3, 1);
+        KMeansSingleThread first = new KMeansSingleThread(firstPoints, K);
+        ClusteringResult half = first.run(10);
+        Path path = dir.resolve("ck.bin");
+        new Checkpoint(centroidsOf(half), 10, Checkpoint.labelsOf(firstPoints)).write(path);
+
+        Checkpoint checkpoint = Checkpoint.read(path);
+        ArrayPointStore resumedPoints = Fixtures.blobs(K, 500, 3, 1);
+        checkpoint.check(K, 3);
+        checkpoint.restoreLabels(resumedPoints);
+        KMeansSingleThread resumed = new KMeansSingleThread(resumedPoints, K);
+        resumed.setCentroids(checkpoint.getCentroids());
+        resumed.setStartIteration(checkpoint.getIteration());
+        ClusteringResult result = resumed.run(20);
+
+        assertEquals(straight.getIterations(), result.getIterations());
+        assertArrayEquals(centroidsOf(straight), centroidsOf(result));
+        assertArrayEquals(Checkpoint.labelsOf(straightPoints), Checkpoint.labelsOf(resumedPoints));
+    }
+
+    @Test
+    void rejectsLabelOutOfRange() throws IOException {
+        Path path = dir.resolve("ck.bin");
+        new Checkpoint(new double[][] {{0}, {1}}, 3, new int[] {0, 2}).write(path);
+        assertThrows(IOException.class, () -> Checkpoint.read(path));
+    }
+
+    @Test
+    void rejectsOtherShapeAndPointCount() throws IOException {
+        Checkpoint checkpoint = new Checkpoint(new double[][] {{0, 0}, {1, 1}}, 3, new int[] {0, 1, 1});
+        assertThrows(IOException.class, () -> checkpoint.check(3, 2));
+        assertThrows(IOException.class, () -> checkpoint.check(2, 3));
+        assertThrows(IOException.class, () -> checkpoint.restoreLabels(new ArrayPointStore(new double[2][4])));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path path = dir.resolve("ck.bin");
+        new Checkpoint(new double[][] {{0}, {1}}, 3, new int[] {0, 1, 1}).write(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        assertThrows(IOException.class, () -> Checkpoint.read(path));
+    }
+
+    private static double[][] centroidsOf(ClusteringResult result) {
+        double[][] centroids = new double[result.getClusters()][];
+        for (int j = 0; j < centroids.length; j++) {
+            centroids[j] = result.getCentroid(j);
+        }
+        return centroids;
+    }
+}
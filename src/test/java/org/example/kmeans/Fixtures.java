@@ -0,0 +1,33 @@
+package org.example.kmeans;
+
+import java.util.Random;
+
+import org.example.data.ArrayPointStore;
+
+/**
+ * 테스트용 작은 데이터. 잘 떨어진 가우시안 군집이라 알고리즘마다 레이블이 같아야 한다.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static ArrayPointStore blobs(int clusters, int perCluster, int dimensions, long seed) {
+        Random random = new Random(seed);
+        double[][] columns = new double[dimensions][clusters * perCluster];
+        for (int c = 0; c < clusters; c++) {
+            double[] center = new double[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                center[d] = random.nextDouble() * 100;
+            }
+            for (int i = 0; i < perCluster; i++) {
+                // 군집을 섞어 두어 처음 k 개 포인트가 한 군집에 몰리지 않게 한다.
+                int index = i * clusters + c;
+                for (int d = 0; d < dimensions; d++) {
+                    columns[d][index] = center[d] + random.nextGaussian();
+                }
+            }
+        }
+        return new ArrayPointStore(columns);
+    }
+}
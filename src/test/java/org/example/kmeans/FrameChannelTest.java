@@ -0,0 +1,175 @@
+package org.example.kmeans;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.example.data.ArrayPointStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FrameChannelTest {
+
+    private SocketChannel writerSocket;
+    private FrameChannel writer;
+    private FrameChannel reader;
+
+    @BeforeEach
+    void connect() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            writerSocket = SocketChannel.open(server.getLocalAddress());
+            writer = new FrameChannel(writerSocket);
+            reader = new FrameChannel(server.accept());
+        }
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    void roundTripsFrames() throws IOException {
+        double[][] centroids = {{1, 2, 3}, {-4.5, 5e300, Double.MIN_VALUE}};
+        writer.writeJob(2, "hamerly");
+        writer.writeCentroids(centroids);
+        writer.writePartials(new double[] {1, 2, 3, 4, 5, 6}, new int[] {10, 20}, 7);
+
+        assertEquals(FrameChannel.JOB, reader.readType());
+        FrameChannel.Job job = reader.readJob();
+        assertEquals(2, job.k);
+        assertEquals("hamerly", job.algorithm);
+        reader.expect(FrameChannel.CENTROIDS);
+        assertArrayEquals(centroids, reader.readCentroids());
+        reader.expect(FrameChannel.PARTIALS);
+        double[] sums = new double[6];
+        int[] counts = new int[2];
+        assertEquals(7, reader.readPartials(sums, counts));
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5, 6}, sums);
+        assertArrayEquals(new int[] {10, 20}, counts);
+
+        writer.close();
+        assertEquals(-1, reader.readType());
+    }
+
+    @Test
+    void roundTripsLargeFrames() throws IOException {
+        // 버퍼(1MB)보다 큰 프레임은 나누어 주고받는다.
+        int count = 300_000;
+        double[][] columns = new double[2][count];
+        ArrayPointStore points = new ArrayPointStore(columns);
+        for (int i = 0; i < count; i++) {
+            columns[0][i] = i;
+            columns[1][i] = -i * 0.5;
+            points.setLabel(i, i % 7);
+        }
+        Thread sender = new Thread(() -> {
+            try {
+                writer.writePoints(points, 0, count);
+                writer.writeLabels(points);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        sender.start();
+
+        reader.expect(FrameChannel.POINTS);
+        double[][] received = reader.readPoints();
+        assertArrayEquals(columns[0], received[0]);
+        assertArrayEquals(columns[1], received[1]);
+        reader.expect(FrameChannel.LABELS);
+        ArrayPointStore target = new ArrayPointStore(received);
+        reader.readLabels(target, 0, count);
+        assertArrayEquals(Checkpoint.labelsOf(points), Checkpoint.labelsOf(target));
+    }
+
+    @Test
+    void receivesFrameIncrementally() throws Exception {
+        reader.configureNonBlocking();
+        ByteBuffer bytes = partialsFrame();
+        ByteBuffer head = bytes.duplicate().limit(10);
+        writerSocket.write(head);
+        waitForBytes();
+        assertFalse(reader.receive(FrameChannel.partialsBytes(2, 1)));
+
+        writerSocket.write(bytes.position(10));
+        while (!reader.receive(FrameChannel.partialsBytes(2, 1))) {
+            Thread.sleep(1);
+        }
+        assertEquals(FrameChannel.PARTIALS, reader.readType());
+        double[] sums = new double[2];
+        int[] counts = new int[2];
+        assertEquals(3, reader.readPartials(sums, counts));
+        assertArrayEquals(new double[] {1.5, 2.5}, sums);
+        assertArrayEquals(new int[] {4, 5}, counts);
+    }
+
+    @Test
+    void truncatedFrameThrows() throws IOException {
+        ByteBuffer bytes = partialsFrame();
+        writerSocket.write(bytes.limit(bytes.limit() - 3));
+        writer.close();
+
+        reader.expect(FrameChannel.PARTIALS);
+        assertThrows(EOFException.class, () -> reader.readPartials(new double[2], new int[2]));
+    }
+
+    @Test
+    void truncatedIncrementalFrameThrows() throws Exception {
+        reader.configureNonBlocking();
+        ByteBuffer bytes = partialsFrame();
+        writerSocket.write(bytes.limit(bytes.limit() - 3));
+        writer.close();
+        waitForBytes();
+
+        assertThrows(EOFException.class, () -> {
+            while (!reader.receive(FrameChannel.partialsBytes(2, 1))) {
+                Thread.sleep(1);
+            }
+        });
+    }
+
+    @Test
+    void shortReceivedFrameThrows() throws Exception {
+        // 모은 프레임이 값 중간에서 끝나면 소켓의 다음 바이트를 이어 붙이지 않는다.
+        reader.configureNonBlocking();
+        ByteBuffer bytes = partialsFrame();
+        writerSocket.write(bytes);
+        long frameBytes = FrameChannel.partialsBytes(2, 1) - 2;
+        while (!reader.receive(frameBytes)) {
+            Thread.sleep(1);
+        }
+        reader.expect(FrameChannel.PARTIALS);
+        EOFException e = assertThrows(EOFException.class, () -> reader.readPartials(new double[2], new int[2]));
+        assertTrue(e.getMessage().startsWith("Truncated frame"));
+    }
+
+    /**
+     * k=2, d=1 인 PARTIALS 프레임의 바이트
+     */
+    private static ByteBuffer partialsFrame() {
+        ByteBuffer bytes = ByteBuffer.allocate((int)FrameChannel.partialsBytes(2, 1)).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putInt(FrameChannel.PARTIALS).putInt(2).putLong(3);
+        bytes.putDouble(1.5).putDouble(2.5).putInt(4).putInt(5);
+        return bytes.flip();
+    }
+
+    private static void waitForBytes() throws InterruptedException {
+        // 루프백이라도 보낸 바이트가 상대 소켓에 도착할 시간을 준다.
+        Thread.sleep(50);
+    }
+}